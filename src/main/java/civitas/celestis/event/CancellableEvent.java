@@ -19,7 +19,7 @@ public class CancellableEvent extends Event implements Cancellable {
     //
 
     /**
-     * Creates a new cancellable event with a random unique identifier and no cause.
+     * Creates a new cancellable event with a generated unique identifier and no cause.
      */
     public CancellableEvent() {
     }
@@ -34,7 +34,7 @@ public class CancellableEvent extends Event implements Cancellable {
     }
 
     /**
-     * Creates a new cancellable event with a random unique identifier.
+     * Creates a new cancellable event with a generated unique identifier.
      *
      * @param cause The cause of this event
      */
@@ -57,7 +57,8 @@ public class CancellableEvent extends Event implements Cancellable {
     //
 
     /**
-     * Whether this event has been marked as cancelled.
+     * Whether this event has been marked as cancelled. The flag is volatile, so that
+     * the accessors are visible across threads without acquiring a monitor.
      */
     private volatile boolean cancelled = false;
 
@@ -71,7 +72,7 @@ public class CancellableEvent extends Event implements Cancellable {
      * @return {@code true} if this event has been flagged as cancelled
      */
     @Override
-    public synchronized boolean isCancelled() {
+    public boolean isCancelled() {
         return cancelled;
     }
 
@@ -85,7 +86,7 @@ public class CancellableEvent extends Event implements Cancellable {
      * @param cancelled Whether this event has been cancelled
      */
     @Override
-    public synchronized void setCancelled(boolean cancelled) {
+    public void setCancelled(boolean cancelled) {
         this.cancelled = cancelled;
     }
 }
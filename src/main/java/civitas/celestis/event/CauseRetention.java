@@ -0,0 +1,30 @@
+package civitas.celestis.event;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * A strategy which determines how strongly an event retains its cause. Retaining every
+ * cause keeps entire causal chains reachable for as long as their latest event is, which
+ * can accumulate a significant amount of memory under long-running causal cascades. The
+ * strategy used by all events is configured by {@link EventCauses#setRetention(CauseRetention)}.
+ * <p>
+ * Causes which are not retained are still identified by {@link Handleable#getCauseId()},
+ * while {@link Handleable#getCause()} returns {@code null} once the cause is no longer available.
+ * </p>
+ *
+ * @see EventCauses
+ * @see Event
+ */
+@FunctionalInterface
+public interface CauseRetention {
+    /**
+     * Returns the reference an event should store in place of the provided cause. This is
+     * either the cause itself, or a detached reference obtained from another strategy of
+     * {@link EventCauses}, which retains the identifier of the cause.
+     *
+     * @param cause The cause of the event being constructed
+     * @return The reference to store as the cause of the event
+     */
+    @Nonnull
+    Handleable retain(@Nonnull Handleable cause);
+}
@@ -0,0 +1,24 @@
+package civitas.celestis.event;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * An event which supersedes earlier events of the same coalescing key. While an event is
+ * queued in a {@link civitas.celestis.event.lifecycle.CoalescingEventQueue CoalescingEventQueue},
+ * a newer event which shares its key replaces it in place, or is merged into it, instead of
+ * being queued separately. This is suited for events such as position or state updates, where
+ * only the most recent state is relevant to handlers.
+ *
+ * @see Handleable
+ * @see civitas.celestis.event.lifecycle.CoalescingEventQueue
+ */
+public interface Coalescable extends Handleable {
+    /**
+     * Returns the coalescing key of this event. Events are only coalesced with queued
+     * events whose keys are equal to this key.
+     *
+     * @return The coalescing key of this event, {@code null} if this event should not be coalesced
+     */
+    @Nullable
+    Object getCoalescingKey();
+}
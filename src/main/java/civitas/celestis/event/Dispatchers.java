@@ -0,0 +1,116 @@
+package civitas.celestis.event;
+
+import civitas.celestis.exception.IllegalInstanceException;
+import jakarta.annotation.Nonnull;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Contains utility methods related to {@link HandlerDispatcher}s.
+ *
+ * @see HandlerDispatcher
+ * @see HandlerReference
+ */
+public final class Dispatchers {
+    //
+    // Constants
+    //
+
+    /**
+     * The erased signature of {@link HandlerDispatcher#dispatch(Listener, Object)}.
+     */
+    private static final MethodType DISPATCH_TYPE = MethodType.methodType(void.class, Listener.class, Object.class);
+
+    //
+    // Compilation
+    //
+
+    /**
+     * Compiles a handler method into a direct-call dispatcher. This first attempts to
+     * spin a lambda class which calls the handler method directly. If the handler method
+     * cannot be linked that way (e.g. it is static), a method handle bound dispatcher is
+     * used instead. If the handler method is not accessible at all, this falls back to
+     * a {@link #reflective(Method) reflective dispatcher}.
+     *
+     * @param method The handler method of which to compile
+     * @return The compiled dispatcher
+     */
+    @Nonnull
+    public static HandlerDispatcher compile(@Nonnull Method method) {
+        final MethodHandles.Lookup lookup;
+        final MethodHandle target;
+
+        try {
+            lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            target = lookup.unreflect(method);
+        } catch (final IllegalAccessException | SecurityException e) {
+            return reflective(method);
+        }
+
+        if (!Modifier.isStatic(method.getModifiers())) {
+            try {
+                final CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "dispatch",
+                        MethodType.methodType(HandlerDispatcher.class),
+                        DISPATCH_TYPE,
+                        target,
+                        MethodType.methodType(void.class, method.getDeclaringClass(), method.getParameterTypes()[0])
+                );
+
+                return (HandlerDispatcher) site.getTarget().invokeExact();
+            } catch (final Throwable ignored) {
+                // Fall through to the method handle dispatcher
+            }
+        }
+
+        return handle(target, method);
+    }
+
+    /**
+     * Creates a dispatcher which invokes the handler method by means of a method handle.
+     *
+     * @param target The method handle of the handler method
+     * @param method The handler method
+     * @return The method handle dispatcher
+     */
+    @Nonnull
+    private static HandlerDispatcher handle(@Nonnull MethodHandle target, @Nonnull Method method) {
+        final MethodHandle receiver = Modifier.isStatic(method.getModifiers())
+                ? MethodHandles.dropArguments(target, 0, Listener.class)
+                : target;
+
+        final MethodHandle handle = receiver.asType(DISPATCH_TYPE);
+        return (listener, argument) -> {
+            handle.invokeExact(listener, argument);
+        };
+    }
+
+    /**
+     * Creates a dispatcher which reflectively invokes the handler method on every call.
+     * This is the slowest form of dispatcher, and is only used when the handler method
+     * cannot be compiled into a direct-call dispatcher.
+     *
+     * @param method The handler method
+     * @return The reflective dispatcher
+     */
+    @Nonnull
+    public static HandlerDispatcher reflective(@Nonnull Method method) {
+        return method::invoke;
+    }
+
+    //
+    // Miscellaneous
+    //
+
+    /**
+     * Private constructor to prevent instantiation.
+     *
+     * @throws IllegalInstanceException Always
+     */
+    private Dispatchers() throws IllegalInstanceException {
+        throw new IllegalInstanceException(this);
+    }
+}
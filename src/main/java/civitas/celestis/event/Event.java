@@ -3,6 +3,9 @@ package civitas.celestis.event;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -53,10 +56,12 @@ public class Event implements Handleable {
     //
 
     /**
-     * Creates a new event with a random unique identifier and no cause.
+     * Creates a new event with a generated unique identifier and no cause.
+     *
+     * @see EventIds
      */
     public Event() {
-        this(UUID.randomUUID(), null);
+        this((Handleable) null);
     }
 
     /**
@@ -69,12 +74,14 @@ public class Event implements Handleable {
     }
 
     /**
-     * Creates a new event with a random unique identifier.
+     * Creates a new event with a generated unique identifier.
      *
      * @param cause The cause of this event
+     * @see EventIds
      */
     public Event(@Nullable Handleable cause) {
-        this(UUID.randomUUID(), cause);
+        this.uniqueId = EventIds.eager();
+        this.cause = EventCauses.retain(cause);
     }
 
     /**
@@ -84,8 +91,8 @@ public class Event implements Handleable {
      * @param cause    The cause of this event
      */
     public Event(@Nonnull UUID uniqueId, @Nullable Handleable cause) {
-        this.uniqueId = uniqueId;
-        this.cause = cause;
+        this.uniqueId = Objects.requireNonNull(uniqueId);
+        this.cause = EventCauses.retain(cause);
     }
 
     //
@@ -94,12 +101,25 @@ public class Event implements Handleable {
 
     /**
      * The unique identifier of this event.
+     * <p>
+     * This is never {@code null} for events which were constructed with an identifier, or while
+     * the {@link EventIds#getStrategy() strategy} is not {@link EventIdStrategy#isLazy() lazy},
+     * which is the default. Under a lazy strategy, this is {@code null} until the identifier is
+     * first requested. Subclasses which may be used with a lazy strategy must therefore use
+     * {@link #getUniqueId()} instead of reading this field.
+     * </p>
+     * <p>
+     * This is not final, as the identifier is generated lazily, and renewed upon recycling
+     * {@link PooledEvent pooled events}. Subclasses must not assign this field.
+     * </p>
      */
-    @Nonnull
-    protected final UUID uniqueId;
+    @Nullable
+    protected volatile UUID uniqueId;
 
     /**
-     * The cause of this event.
+     * The cause of this event, as retained by the {@link EventCauses#getRetention() cause retention}
+     * upon construction. If the cause is not strongly retained, this is a detached reference which
+     * only exposes the unique identifier of the cause. Use {@link #getCause()} to resolve it.
      */
     @Nullable
     protected final Handleable cause;
@@ -116,7 +136,13 @@ public class Event implements Handleable {
     @Override
     @Nonnull
     public UUID getUniqueId() {
-        return uniqueId;
+        final UUID id = uniqueId;
+        if (id != null) return id;
+
+        // Lazily generate the identifier, keeping the first one if multiple threads race
+        final UUID generated = EventIds.next();
+        final UUID witness = (UUID) Handles.UNIQUE_ID.compareAndExchange(this, null, generated);
+        return witness != null ? witness : generated;
     }
 
     /**
@@ -127,7 +153,26 @@ public class Event implements Handleable {
     @Override
     @Nullable
     public Handleable getCause() {
-        return cause;
+        return EventCauses.resolve(cause);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    @Nullable
+    public UUID getCauseId() {
+        return cause != null ? cause.getUniqueId() : null;
+    }
+
+    /**
+     * Replaces the unique identifier of this event with a newly generated identifier.
+     * This is only used to recycle {@link PooledEvent pooled events}.
+     */
+    void renewUniqueId() {
+        uniqueId = EventIds.eager();
     }
 
     //
@@ -145,4 +190,27 @@ public class Event implements Handleable {
     public String toString() {
         return Events.toString(this);
     }
+
+    //
+    // Handles
+    //
+
+    /**
+     * Holds the variable handles of this class. These are held by a nested class, so
+     * that they are not picked up as fields by {@link Events#toString(Handleable)}.
+     */
+    private static final class Handles {
+        /**
+         * The variable handle of {@link #uniqueId}, used to lazily generate the identifier.
+         */
+        private static final VarHandle UNIQUE_ID;
+
+        static {
+            try {
+                UNIQUE_ID = MethodHandles.lookup().findVarHandle(Event.class, "uniqueId", UUID.class);
+            } catch (final ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+    }
 }
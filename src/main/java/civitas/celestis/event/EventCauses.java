@@ -0,0 +1,249 @@
+package civitas.celestis.event;
+
+import civitas.celestis.exception.IllegalInstanceException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Contains utility methods related to the causes of events, and holds the {@link CauseRetention}
+ * which determines how strongly events retain their causes. The default retention is
+ * {@link #full()}, which retains every cause for as long as the event is retained.
+ *
+ * @see CauseRetention
+ * @see Event
+ */
+public final class EventCauses {
+    //
+    // Retention
+    //
+
+    /**
+     * The retention currently used by newly constructed events.
+     */
+    @Nonnull
+    private static volatile CauseRetention retention = full();
+
+    /**
+     * Returns the retention currently used by newly constructed events.
+     *
+     * @return The current cause retention
+     */
+    @Nonnull
+    public static CauseRetention getRetention() {
+        return retention;
+    }
+
+    /**
+     * Sets the retention used by newly constructed events. This only affects events
+     * which are constructed (or acquired from a pool) after this call.
+     *
+     * @param retention The cause retention to use
+     */
+    public static void setRetention(@Nonnull CauseRetention retention) {
+        EventCauses.retention = Objects.requireNonNull(retention);
+    }
+
+    /**
+     * Applies the current retention to the cause of an event being constructed.
+     *
+     * @param cause The cause of the event
+     * @return The reference to store as the cause of the event
+     */
+    @Nullable
+    static Handleable retain(@Nullable Handleable cause) {
+        return cause != null ? retention.retain(cause) : null;
+    }
+
+    /**
+     * Resolves a stored cause reference into the cause it references.
+     *
+     * @param stored The stored cause reference
+     * @return The cause if it is still available, {@code null} otherwise
+     */
+    @Nullable
+    static Handleable resolve(@Nullable Handleable stored) {
+        return stored instanceof Detached detached ? detached.resolve() : stored;
+    }
+
+    //
+    // Strategies
+    //
+
+    /**
+     * Returns a retention which strongly retains every cause.
+     *
+     * @return The full retention
+     */
+    @Nonnull
+    public static CauseRetention full() {
+        return cause -> cause;
+    }
+
+    /**
+     * Returns a retention which only retains the unique identifier of every cause.
+     * Causes are never available through {@link Handleable#getCause()}.
+     *
+     * @return The identifier-only retention
+     */
+    @Nonnull
+    public static CauseRetention idOnly() {
+        return cause -> cause instanceof Detached ? cause : new DetachedId(cause.getUniqueId());
+    }
+
+    /**
+     * Returns a retention which weakly references every cause. Causes remain available
+     * for as long as they are strongly reachable from elsewhere, and only their unique
+     * identifiers are retained thereafter.
+     *
+     * @return The weak retention
+     */
+    @Nonnull
+    public static CauseRetention weak() {
+        return cause -> cause instanceof Detached ? cause : new DetachedWeak(cause);
+    }
+
+    /**
+     * Returns a retention which strongly retains causes up to the provided depth. Whenever
+     * a cause would make more than {@code depth} events strongly reachable along the causal
+     * chain, only the unique identifier of the cause is retained instead. This bounds the
+     * number of ancestors every event can keep alive, at the cost of walking up to
+     * {@code depth} causes upon the construction of each event.
+     *
+     * @param depth The maximum number of strongly retained causes along a causal chain
+     * @return The depth-limited retention
+     */
+    @Nonnull
+    public static CauseRetention depthLimited(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The retention depth must be at least 1.");
+        }
+
+        return cause -> {
+            int retained = 1;
+
+            for (Handleable current = cause.getCause(); current != null; current = current.getCause()) {
+                if (++retained > depth) return new DetachedId(cause.getUniqueId());
+            }
+
+            return cause;
+        };
+    }
+
+    //
+    // Detached Causes
+    //
+
+    /**
+     * A reference to a cause which is not strongly retained. Detached references are stored
+     * in place of the cause, and only expose the unique identifier of the cause.
+     */
+    private interface Detached extends Handleable {
+        /**
+         * Returns the cause this reference refers to.
+         *
+         * @return The cause if it is still available, {@code null} otherwise
+         */
+        @Nullable
+        Handleable resolve();
+
+        /**
+         * Returns {@code null}, as detached references have no causes of their own.
+         *
+         * @return {@code null}
+         */
+        @Nullable
+        @Override
+        default Handleable getCause() {
+            return null;
+        }
+    }
+
+    /**
+     * A detached reference which only retains the identifier of the cause.
+     *
+     * @param uniqueId The unique identifier of the cause
+     */
+    private record DetachedId(@Nonnull UUID uniqueId) implements Detached {
+        /**
+         * {@inheritDoc}
+         *
+         * @return {@inheritDoc}
+         */
+        @Nonnull
+        @Override
+        public UUID getUniqueId() {
+            return uniqueId;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return {@code null}, as the cause is never available
+         */
+        @Nullable
+        @Override
+        public Handleable resolve() {
+            return null;
+        }
+    }
+
+    /**
+     * A detached reference which weakly references the cause.
+     */
+    private static final class DetachedWeak extends WeakReference<Handleable> implements Detached {
+        /**
+         * Creates a new weak detached reference.
+         *
+         * @param cause The cause to reference
+         */
+        private DetachedWeak(@Nonnull Handleable cause) {
+            super(cause);
+            this.uniqueId = cause.getUniqueId();
+        }
+
+        /**
+         * The unique identifier of the cause.
+         */
+        @Nonnull
+        private final UUID uniqueId;
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return {@inheritDoc}
+         */
+        @Nonnull
+        @Override
+        public UUID getUniqueId() {
+            return uniqueId;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return {@inheritDoc}
+         */
+        @Nullable
+        @Override
+        public Handleable resolve() {
+            return get();
+        }
+    }
+
+    //
+    // Miscellaneous
+    //
+
+    /**
+     * Private constructor to prevent instantiation.
+     *
+     * @throws IllegalInstanceException Always
+     */
+    private EventCauses() throws IllegalInstanceException {
+        throw new IllegalInstanceException(this);
+    }
+}
@@ -6,7 +6,9 @@ import java.lang.annotation.*;
 
 /**
  * A marker annotation which marks a method as an event handler.
- * Event handlers must take only one parameter, which is a subtype of {@link Handleable}.
+ * Event handlers must take only one parameter, which is a subtype of {@link Handleable},
+ * or a {@link java.util.List List} of a subtype of {@link Handleable}. The latter form
+ * declares a batch handler, which receives the events in bulk. (see {@link Listener})
  *
  * @see Handleable
  * @see Event
@@ -24,4 +26,29 @@ public @interface EventHandler {
      */
     @Nonnull
     HandlerPriority priority() default HandlerPriority.MEDIUM;
+
+    /**
+     * Returns whether this event handler should be invoked asynchronously on a virtual thread.
+     * Asynchronous handlers do not block the event thread, and should be used for handlers
+     * which perform blocking operations. (e.g. I/O)
+     * <p>
+     * Asynchronous handlers of non-cancellable events are not waited for, and may therefore
+     * still be running while later handlers and events are processed. For {@link Cancellable}
+     * events, every asynchronous handler is completed before any handler of a later priority
+     * is invoked, preserving the cancellation semantics of synchronous handlers.
+     * </p>
+     *
+     * @return {@code true} if this handler should be invoked asynchronously
+     */
+    boolean async() default false;
+
+    /**
+     * Returns whether this event handler should be skipped for {@link Cancellable} events
+     * which have already been cancelled by the time this handler would be invoked. Skipped
+     * handlers are never invoked, and thus do not need to check the cancellation state
+     * themselves. Batch handlers receive only the events of the batch which are not cancelled.
+     *
+     * @return {@code true} if this handler should not be invoked for cancelled events
+     */
+    boolean ignoreCancelled() default false;
 }
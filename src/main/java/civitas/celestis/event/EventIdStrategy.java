@@ -0,0 +1,36 @@
+package civitas.celestis.event;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.UUID;
+
+/**
+ * A strategy which generates the unique identifiers of events which were not
+ * given an identifier upon construction. The strategy used by all events is
+ * configured by {@link EventIds#setStrategy(EventIdStrategy)}.
+ *
+ * @see EventIds
+ * @see Event
+ */
+@FunctionalInterface
+public interface EventIdStrategy {
+    /**
+     * Generates a new unique identifier.
+     *
+     * @return The generated unique identifier
+     */
+    @Nonnull
+    UUID next();
+
+    /**
+     * Returns whether identifiers should be generated lazily. Lazy identifiers are
+     * generated upon the first call to {@link Handleable#getUniqueId()} instead of upon
+     * construction, which avoids the cost entirely for events which are never identified.
+     * Until then, the {@link Event#uniqueId} field of the event is {@code null}.
+     *
+     * @return {@code true} if identifiers should be generated lazily
+     */
+    default boolean isLazy() {
+        return false;
+    }
+}
@@ -0,0 +1,164 @@
+package civitas.celestis.event;
+
+import civitas.celestis.exception.IllegalInstanceException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contains utility methods related to the unique identifiers of events, and holds the
+ * {@link EventIdStrategy} which is used to generate them. The default strategy is
+ * {@link #random()}, which is backed by a cryptographically strong generator. Applications
+ * which create events at high rates should consider a cheaper strategy.
+ *
+ * @see EventIdStrategy
+ * @see Event
+ */
+public final class EventIds {
+    //
+    // Strategy
+    //
+
+    /**
+     * The strategy currently used to generate event identifiers.
+     */
+    @Nonnull
+    private static volatile EventIdStrategy strategy = random();
+
+    /**
+     * Returns the strategy currently used to generate event identifiers.
+     *
+     * @return The current event identifier strategy
+     */
+    @Nonnull
+    public static EventIdStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Sets the strategy used to generate event identifiers. This only affects
+     * events which are constructed (or lazily identified) after this call.
+     *
+     * @param strategy The event identifier strategy to use
+     */
+    public static void setStrategy(@Nonnull EventIdStrategy strategy) {
+        EventIds.strategy = Objects.requireNonNull(strategy);
+    }
+
+    /**
+     * Generates an identifier upon the construction of an event.
+     *
+     * @return The generated identifier, or {@code null} if the current strategy is lazy
+     */
+    @Nullable
+    static UUID eager() {
+        final EventIdStrategy current = strategy;
+        return current.isLazy() ? null : current.next();
+    }
+
+    /**
+     * Generates an identifier using the current strategy, regardless of laziness.
+     *
+     * @return The generated identifier
+     */
+    @Nonnull
+    public static UUID next() {
+        return strategy.next();
+    }
+
+    //
+    // Strategies
+    //
+
+    /**
+     * Returns a strategy which generates random (version 4) identifiers using a
+     * cryptographically strong generator. This is equivalent to {@link UUID#randomUUID()}.
+     *
+     * @return The secure random strategy
+     */
+    @Nonnull
+    public static EventIdStrategy random() {
+        return UUID::randomUUID;
+    }
+
+    /**
+     * Returns a strategy which generates random (version 4) identifiers using the
+     * {@link ThreadLocalRandom} of the calling thread. This is not cryptographically
+     * strong, but is cheap and free of contention between threads.
+     *
+     * @return The thread-local random strategy
+     */
+    @Nonnull
+    public static EventIdStrategy threadLocalRandom() {
+        return () -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            // Set the version (4) and variant (IETF) bits
+            final long msb = (random.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+            final long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+            return new UUID(msb, lsb);
+        };
+    }
+
+    /**
+     * Returns a strategy which generates monotonically increasing identifiers. Each strategy
+     * instance has a random prefix, and a counter which is incremented for every identifier.
+     * Identifiers are unique within the strategy instance, and their order reflects the
+     * order in which they were generated.
+     *
+     * @return A new sequential strategy
+     */
+    @Nonnull
+    public static EventIdStrategy sequential() {
+        final long prefix = ThreadLocalRandom.current().nextLong();
+        final AtomicLong counter = new AtomicLong();
+
+        return () -> new UUID(prefix, counter.getAndIncrement());
+    }
+
+    /**
+     * Returns a strategy which lazily generates identifiers using the provided strategy.
+     * While a lazy strategy is in use, the {@link Event#uniqueId} field of newly constructed
+     * events is {@code null} until their identifier is first requested, and subclasses of
+     * {@link Event} must read their identifier through {@link Event#getUniqueId()}.
+     *
+     * @param strategy The strategy to generate identifiers with
+     * @return The lazy strategy
+     * @see EventIdStrategy#isLazy()
+     */
+    @Nonnull
+    public static EventIdStrategy lazy(@Nonnull EventIdStrategy strategy) {
+        Objects.requireNonNull(strategy);
+
+        return new EventIdStrategy() {
+            @Nonnull
+            @Override
+            public UUID next() {
+                return strategy.next();
+            }
+
+            @Override
+            public boolean isLazy() {
+                return true;
+            }
+        };
+    }
+
+    //
+    // Miscellaneous
+    //
+
+    /**
+     * Private constructor to prevent instantiation.
+     *
+     * @throws IllegalInstanceException Always
+     */
+    private EventIds() throws IllegalInstanceException {
+        throw new IllegalInstanceException(this);
+    }
+}
@@ -0,0 +1,141 @@
+package civitas.celestis.event;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of recyclable events. Events are {@link #acquire() acquired} from the pool,
+ * called to an event manager, then automatically returned to the pool once they have been
+ * fully processed. If the pool is empty, a new event is created using the factory. If the
+ * pool is full, released events are discarded and left to the garbage collector.
+ * <p>
+ * The pool itself is thread-safe. Its critical sections consist only of an array access,
+ * as events are typically acquired by producing threads and returned by the event thread.
+ * </p>
+ *
+ * @param <E> The type of event this pool holds
+ * @see PooledEvent
+ */
+public class EventPool<E extends PooledEvent> {
+    //
+    // Constants
+    //
+
+    /**
+     * The default capacity of an event pool.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new event pool with the default capacity.
+     *
+     * @param factory The factory to create new events with
+     */
+    public EventPool(@Nonnull Supplier<? extends E> factory) {
+        this(factory, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new event pool.
+     *
+     * @param factory  The factory to create new events with
+     * @param capacity The maximum number of idle events this pool holds
+     */
+    public EventPool(@Nonnull Supplier<? extends E> factory, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of an event pool must be positive.");
+        }
+
+        this.factory = Objects.requireNonNull(factory);
+        this.events = new PooledEvent[capacity];
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The factory to create new events with.
+     */
+    @Nonnull
+    private final Supplier<? extends E> factory;
+
+    /**
+     * The stack of idle events.
+     */
+    @Nonnull
+    private final PooledEvent[] events;
+
+    /**
+     * The number of idle events.
+     */
+    private int size = 0;
+
+    //
+    // Methods
+    //
+
+    /**
+     * Acquires an event with no cause from this pool.
+     *
+     * @return The acquired event
+     */
+    @Nonnull
+    public E acquire() {
+        return acquire(null);
+    }
+
+    /**
+     * Acquires an event from this pool. The caller holds the only reference to the event,
+     * which is transferred to the event manager once the event is called.
+     *
+     * @param cause The cause of the event
+     * @return The acquired event
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public E acquire(@Nullable Handleable cause) {
+        E event = null;
+
+        synchronized (events) {
+            if (size > 0) {
+                event = (E) events[--size];
+                events[size] = null;
+            }
+        }
+
+        if (event == null) event = factory.get();
+
+        event.acquired(this, cause);
+        return event;
+    }
+
+    /**
+     * Returns the number of idle events currently held by this pool.
+     *
+     * @return The number of idle events
+     */
+    public int size() {
+        synchronized (events) {
+            return size;
+        }
+    }
+
+    /**
+     * Returns a released event to this pool.
+     *
+     * @param event The event to return
+     */
+    void recycle(@Nonnull PooledEvent event) {
+        synchronized (events) {
+            if (size < events.length) events[size++] = event;
+        }
+    }
+}
@@ -4,11 +4,15 @@ import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 
 import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Contains utility methods related to {@link Event}s.
@@ -19,7 +23,30 @@ public final class Events {
     //
 
     /**
-     * Serializes an event into its standardized form.
+     * The maximum capacity of a string builder which is retained for reuse by its thread.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 4096;
+
+    /**
+     * The string builder of each thread, which is reused across serializations. This
+     * is {@code null} while the builder of the thread is in use by a serialization.
+     */
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
+    /**
+     * The cache of serializers, which are computed once per event class.
+     */
+    private static final ClassValue<Serializer> SERIALIZERS = new ClassValue<>() {
+        @Override
+        protected Serializer computeValue(@Nonnull Class<?> type) {
+            return new Serializer(type);
+        }
+    };
+
+    /**
+     * Serializes an event into its standardized form. The declared fields of the event are
+     * read directly if they are accessible from this class, or by their public getters if not.
+     * How each field is accessed is resolved once per event class, and is cached thereafter.
      *
      * @param event The event of which to serialize
      * @return The serialized form of the event
@@ -33,23 +60,123 @@ public final class Events {
          * DOING SO WILL RESULT IN AN INFINITE LOOP.
          */
 
-        final StringBuilder result = new StringBuilder(event.getClass().getSimpleName());
-        result.append("{")
-                .append("uuid=").append(event.getUniqueId()).append(", ")
-                .append("cause=");
+        // Borrow the builder of this thread, or create one if it is already in use
+        // (a field of the event may itself be serialized by this method)
+        StringBuilder result = BUFFER.get();
+
+        if (result == null) result = new StringBuilder();
+        else BUFFER.set(null);
+
+        try {
+            result.append(event.getClass().getSimpleName());
+            result.append("{")
+                    .append("uuid=").append(event.getUniqueId()).append(", ")
+                    .append("cause=");
+
+            result.append(event.getCauseId());
+
+            SERIALIZERS.get(event.getClass()).serialize(event, result);
+
+            return result.append("}").toString();
+        } finally {
+            result.setLength(0);
+            if (result.capacity() <= MAX_RETAINED_CAPACITY) BUFFER.set(result);
+        }
+    }
+
+    /**
+     * A precomputed plan of how to serialize the declared fields of an event class.
+     * Every accessor is resolved into a method handle upon construction, so that no
+     * reflective lookup is performed when an event is serialized.
+     */
+    private static final class Serializer {
+        /**
+         * The type of every accessor.
+         */
+        private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+        /**
+         * Creates a new serializer.
+         *
+         * @param type The event class to serialize
+         */
+        private Serializer(@Nonnull Class<?> type) {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final List<Property> properties = new ArrayList<>();
 
-        final Handleable cause = event.getCause();
-        result.append(cause != null ? cause.getUniqueId() : "null");
+            for (final Field field : type.getDeclaredFields()) {
+                final String name = field.getName();
+                if (name.equals("uuid") || name.equals("cause")) continue;
 
-        for (final Field field : event.getClass().getDeclaredFields()) {
-            final String name = field.getName();
-            if (name.equals("uuid") || name.equals("cause")) continue;
+                properties.add(Property.of(lookup, type, field, ", " + name + "="));
+            }
 
-            result.append(", ").append(name).append("=");
+            this.properties = properties.toArray(new Property[0]);
+        }
 
-            try {
-                result.append(field.get(event));
-            } catch (final IllegalAccessException ignored) {
+        /**
+         * The properties of the event class, in order of declaration.
+         */
+        @Nonnull
+        private final Property[] properties;
+
+        /**
+         * Appends every property of the provided event to the string builder.
+         *
+         * @param event  The event of which to serialize
+         * @param result The string builder to append to
+         */
+        private void serialize(@Nonnull Handleable event, @Nonnull StringBuilder result) {
+            for (final Property property : properties) {
+                property.append(event, result);
+            }
+        }
+
+        /**
+         * A property of an event class.
+         *
+         * @param prefix   The prefix to append before the value of the property
+         * @param accessor The accessor of the property, {@code null} if the value is constant
+         * @param getter   Whether the accessor is a getter, whose string values are quoted
+         * @param constant The value to append if the property has no accessor
+         */
+        private record Property(
+                @Nonnull String prefix,
+                @Nullable MethodHandle accessor,
+                boolean getter,
+                @Nullable String constant
+        ) {
+            /**
+             * Resolves how a field is accessed. The field is read directly if it is accessible,
+             * and by its public getter otherwise. If neither is possible, the reason is appended.
+             *
+             * @param lookup The lookup to resolve accessors with
+             * @param type   The event class
+             * @param field  The declared field of the event class
+             * @param prefix The prefix to append before the value of the field
+             * @return The resolved property
+             */
+            @Nonnull
+            private static Property of(
+                    @Nonnull MethodHandles.Lookup lookup,
+                    @Nonnull Class<?> type,
+                    @Nonnull Field field,
+                    @Nonnull String prefix
+            ) {
+                try {
+                    MethodHandle handle = lookup.unreflectGetter(field);
+
+                    // Static fields are read without the event instance
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                    }
+
+                    return new Property(prefix, handle.asType(ACCESSOR_TYPE), false, null);
+                } catch (final IllegalAccessException ignored) {
+                    // Fall back to the getter of the field
+                }
+
+                final String name = field.getName();
                 final String getterName;
 
                 // Contextual getter search for booleans
@@ -66,27 +193,49 @@ public final class Events {
                 final Method getter;
 
                 try {
-                    getter = event.getClass().getMethod(getterName);
+                    getter = type.getMethod(getterName);
                 } catch (final NoSuchMethodException e) {
-                    result.append("getter not found (").append(e.getMessage()).append(")");
-                    continue;
+                    return new Property(prefix, null, false, "getter not found (" + e.getMessage() + ")");
                 }
 
                 try {
-                    final Object value = getter.invoke(event);
-                    result.append(value instanceof String string ?
-                            "'" + string + "'" :
-                            value);
-
+                    return new Property(prefix, lookup.unreflect(getter).asType(ACCESSOR_TYPE), true, null);
                 } catch (final IllegalAccessException e) {
-                    result.append("inaccessible (non-public)");
-                } catch (final InvocationTargetException e) {
-                    result.append("error (").append(e.getMessage()).append(")");
+                    return new Property(prefix, null, false, "inaccessible (non-public)");
                 }
             }
-        }
 
-        return result.append("}").toString();
+            /**
+             * Appends this property of the provided event to the string builder.
+             *
+             * @param event  The event of which to append the property of
+             * @param result The string builder to append to
+             */
+            private void append(@Nonnull Handleable event, @Nonnull StringBuilder result) {
+                result.append(prefix);
+
+                if (accessor == null) {
+                    result.append(constant);
+                    return;
+                }
+
+                final Object value;
+
+                try {
+                    value = accessor.invokeExact((Object) event);
+                } catch (final Throwable e) {
+                    // Reflective invocation reported this as an InvocationTargetException, which has no message
+                    result.append("error (null)");
+                    return;
+                }
+
+                if (getter && value instanceof String string) {
+                    result.append("'").append(string).append("'");
+                } else {
+                    result.append(value);
+                }
+            }
+        }
     }
 
     //
@@ -95,7 +244,9 @@ public final class Events {
 
     /**
      * Given an event, this prints its serialized form, followed by a
-     * list of causes in the temporal order ascending.
+     * list of causes in the temporal order ascending. If the causal chain has
+     * been cut short by the {@link CauseRetention cause retention}, the identifier
+     * of the earliest known cause is printed in place of the causes which were dropped.
      *
      * @param printStream The print stream of which to print to
      * @param event       The event of which to find the causes of and print
@@ -112,16 +263,22 @@ public final class Events {
         // Declare list of causes
         final List<Handleable> causes = new ArrayList<>();
 
-        // Find all causes
+        // Find all causes which are still retained
         Handleable current = event;
+        Handleable earliest = event;
         while (current != null) {
             causes.add(current);
+            earliest = current;
             current = current.getCause();
         }
 
         // Print list header
         printStream.println("Causes:");
 
+        // Print the identifier of the earliest cause if it is no longer retained
+        final UUID dropped = earliest.getCauseId();
+        if (dropped != null) printStream.println("- " + dropped + " (no longer retained)");
+
         // Print all causes in temporal order
         for (int i = (causes.size() - 1); i >= 0; i--) {
             final Handleable cause = causes.get(i);
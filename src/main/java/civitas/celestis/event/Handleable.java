@@ -29,4 +29,16 @@ public interface Handleable extends Unique<UUID> {
      */
     @Nullable
     Handleable getCause();
+
+    /**
+     * Returns the unique identifier of the cause of this event. Unlike {@link #getCause()},
+     * this remains available when the cause itself is no longer retained. (see {@link CauseRetention})
+     *
+     * @return The unique identifier of the cause if specified, {@code null} if not
+     */
+    @Nullable
+    default UUID getCauseId() {
+        final Handleable cause = getCause();
+        return cause != null ? cause.getUniqueId() : null;
+    }
 }
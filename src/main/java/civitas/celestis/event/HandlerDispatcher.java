@@ -0,0 +1,31 @@
+package civitas.celestis.event;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * A precompiled invoker of an event handler method. Dispatchers are created once
+ * per handler method when its {@link HandlerReference} is created, and are then
+ * reused for every event the handler processes. This avoids the overhead of
+ * reflectively invoking the handler method on every event.
+ * <p>
+ * Dispatchers do not wrap exceptions thrown by the handler method. Any throwable
+ * thrown by the handler is propagated as-is, and it is the responsibility of
+ * {@link HandlerReference#handle(Handleable)} to translate it into a
+ * {@link civitas.celestis.exception.event.HandlerException HandlerException}.
+ * </p>
+ *
+ * @see Dispatchers
+ * @see HandlerReference
+ */
+@FunctionalInterface
+public interface HandlerDispatcher {
+    /**
+     * Invokes the handler method on the provided listener instance.
+     *
+     * @param listener The listener instance of which to invoke the handler method on
+     * @param argument The argument to pass to the handler method (an event, or a list of events
+     *                 for {@link HandlerReference#batch() batch handlers})
+     * @throws Throwable When the handler method throws an exception
+     */
+    void dispatch(@Nonnull Listener listener, @Nonnull Object argument) throws Throwable;
+}
@@ -1,10 +1,13 @@
 package civitas.celestis.event;
 
+import civitas.celestis.event.metrics.HandlerMetrics;
 import civitas.celestis.exception.event.HandlerException;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.reflect.*;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * A reference to an event handler. Contains contextual information required
@@ -12,13 +15,186 @@ import java.lang.reflect.Method;
  * transient reference object, its methods consist of core operations which alter
  * the behavior of all event manager implementations. Exercise caution when
  * modifying a member of this class.
+ * <p>
+ * The properties of the handler method are resolved once upon construction, and
+ * the handler method is compiled into a {@link HandlerDispatcher}, which is used to
+ * invoke the handler without the overhead of reflection. Two handler references are
+ * considered equal if they reference the same handler method of the same listener, and are
+ * scoped to the same {@link #key() key}.
+ * </p>
  *
- * @param listener The event listener instance
- * @param method   The event handler method
  * @see Listener
  * @see EventHandler
+ * @see HandlerDispatcher
+ * @see HandlerMetrics
  */
-public record HandlerReference(@Nonnull Listener listener, @Nonnull Method method) {
+public final class HandlerReference {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new handler reference. The handler method is compiled into a dispatcher.
+     *
+     * @param listener The event listener instance
+     * @param method   The event handler method
+     */
+    public HandlerReference(@Nonnull Listener listener, @Nonnull Method method) {
+        this(listener, method, Dispatchers.compile(method));
+    }
+
+    /**
+     * Creates a new handler reference.
+     *
+     * @param listener   The event listener instance
+     * @param method     The event handler method
+     * @param dispatcher The dispatcher to invoke the handler method with
+     */
+    public HandlerReference(@Nonnull Listener listener, @Nonnull Method method, @Nonnull HandlerDispatcher dispatcher) {
+        final Class<?> eventType = eventTypeOf(method);
+
+        if (eventType == null) {
+            throw new IllegalArgumentException("An invalid method was referenced as an event handler.");
+        }
+
+        final EventHandler annotation = method.getAnnotation(EventHandler.class);
+
+        this.listener = Objects.requireNonNull(listener);
+        this.method = method;
+        this.dispatcher = Objects.requireNonNull(dispatcher);
+        this.eventType = eventType;
+        this.batch = method.getParameterTypes()[0] == List.class;
+        this.priority = annotation != null ? annotation.priority() : HandlerPriority.MEDIUM;
+        this.async = annotation != null && annotation.async();
+        this.ignoreCancelled = annotation != null && annotation.ignoreCancelled();
+        this.key = null;
+        this.metrics = new HandlerMetrics();
+    }
+
+    /**
+     * Creates a new handler reference which is scoped to a key.
+     *
+     * @param source The handler reference to copy the properties of
+     * @param key    The key of the handler
+     */
+    private HandlerReference(@Nonnull HandlerReference source, @Nonnull Object key) {
+        this.listener = source.listener;
+        this.method = source.method;
+        this.dispatcher = source.dispatcher;
+        this.eventType = source.eventType;
+        this.batch = source.batch;
+        this.priority = source.priority;
+        this.async = source.async;
+        this.ignoreCancelled = source.ignoreCancelled;
+        this.key = Objects.requireNonNull(key);
+        this.metrics = new HandlerMetrics();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The event listener instance.
+     */
+    @Nonnull
+    private final Listener listener;
+
+    /**
+     * The event handler method.
+     */
+    @Nonnull
+    private final Method method;
+
+    /**
+     * The dispatcher used to invoke the handler method.
+     */
+    @Nonnull
+    private final HandlerDispatcher dispatcher;
+
+    /**
+     * The parameter type of the handler method.
+     */
+    @Nonnull
+    private final Class<?> eventType;
+
+    /**
+     * The execution priority of the handler method.
+     */
+    @Nonnull
+    private final HandlerPriority priority;
+
+    /**
+     * Whether the handler method should be invoked asynchronously.
+     */
+    private final boolean async;
+
+    /**
+     * Whether the handler method should be skipped for cancelled events.
+     */
+    private final boolean ignoreCancelled;
+
+    /**
+     * Whether the handler method takes a list of events.
+     */
+    private final boolean batch;
+
+    /**
+     * The key this handler is scoped to, or {@code null} if this handler is not keyed.
+     */
+    @Nullable
+    private final Object key;
+
+    /**
+     * The live metrics of this handler.
+     */
+    @Nonnull
+    private final HandlerMetrics metrics;
+
+    //
+    // Getters
+    //
+
+    /**
+     * Returns the event listener instance.
+     *
+     * @return The event listener instance
+     */
+    @Nonnull
+    public Listener listener() {
+        return listener;
+    }
+
+    /**
+     * Returns the event handler method.
+     *
+     * @return The event handler method
+     */
+    @Nonnull
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Returns the dispatcher used to invoke the handler method.
+     *
+     * @return The dispatcher of this handler
+     */
+    @Nonnull
+    public HandlerDispatcher dispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Returns the type of event this handler accepts.
+     *
+     * @return The parameter type of the handler method
+     */
+    @Nonnull
+    public Class<?> eventType() {
+        return eventType;
+    }
+
     /**
      * Returns the execution priority of this event handler.
      *
@@ -27,13 +203,66 @@ public record HandlerReference(@Nonnull Listener listener, @Nonnull Method metho
      */
     @Nonnull
     public HandlerPriority priority() {
-        try {
-            return method.getAnnotation(EventHandler.class).priority();
-        } catch (final NullPointerException e) {
-            return HandlerPriority.MEDIUM;
-        }
+        return priority;
+    }
+
+    /**
+     * Returns whether this event handler should be invoked asynchronously.
+     *
+     * @return {@code true} if this handler should be invoked asynchronously
+     * @see EventHandler#async()
+     */
+    public boolean async() {
+        return async;
+    }
+
+    /**
+     * Returns whether this event handler should be skipped for cancelled events.
+     *
+     * @return {@code true} if this handler ignores cancelled events
+     * @see EventHandler#ignoreCancelled()
+     */
+    public boolean ignoreCancelled() {
+        return ignoreCancelled;
+    }
+
+    /**
+     * Returns whether this event handler is a batch handler, which takes a list of events.
+     *
+     * @return {@code true} if this handler takes a list of events
+     * @see Listener
+     */
+    public boolean batch() {
+        return batch;
     }
 
+    /**
+     * Returns the key this event handler is scoped to. Keyed handlers only receive
+     * {@link Keyed} events of an equal key.
+     *
+     * @return The key of this event handler, {@code null} if this handler is not keyed
+     * @see Keyed
+     */
+    @Nullable
+    public Object key() {
+        return key;
+    }
+
+    /**
+     * Returns the live metrics of this event handler, which are recorded to by the
+     * event processor whenever this handler is invoked.
+     *
+     * @return The metrics of this event handler
+     */
+    @Nonnull
+    public HandlerMetrics metrics() {
+        return metrics;
+    }
+
+    //
+    // Methods
+    //
+
     /**
      * Returns whether this handler accepts the provided event as its parameter.
      *
@@ -42,11 +271,32 @@ public record HandlerReference(@Nonnull Listener listener, @Nonnull Method metho
      * @return {@code true} if this event handler accepts the event
      */
     public <E extends Handleable> boolean accepts(@Nonnull E event) {
-        try {
-            return method.getParameterTypes()[0].isAssignableFrom(event.getClass());
-        } catch (final IndexOutOfBoundsException e) {
-            throw new RuntimeException("An invalid method was referenced as an event handler.", e);
-        }
+        if (!eventType.isInstance(event)) return false;
+        return key == null || event instanceof Keyed keyed && key.equals(keyed.getKey());
+    }
+
+    /**
+     * Creates a copy of this handler reference which is scoped to the provided key.
+     * The copy records its own metrics.
+     *
+     * @param key The key to scope the handler to
+     * @return The keyed handler reference
+     * @see Keyed
+     */
+    @Nonnull
+    public HandlerReference keyed(@Nonnull Object key) {
+        return new HandlerReference(this, key);
+    }
+
+    /**
+     * Returns whether this handler should be skipped for the provided event, as it ignores
+     * cancelled events and the event has been cancelled.
+     *
+     * @param event The event of which to check
+     * @return {@code true} if this handler should not be invoked for the event
+     */
+    public boolean skips(@Nonnull Handleable event) {
+        return ignoreCancelled && event instanceof Cancellable cancellable && cancellable.isCancelled();
     }
 
     /**
@@ -57,16 +307,130 @@ public record HandlerReference(@Nonnull Listener listener, @Nonnull Method metho
      * @throws HandlerException When an exception occurs during the processing of the event
      */
     public <E extends Handleable> void handle(@Nonnull E event) throws HandlerException {
+        if (batch) {
+            handleAll(List.of(event));
+            return;
+        }
+
+        invoke(event);
+    }
+
+    /**
+     * Invokes the handler to process a list of events. If this is not a batch handler,
+     * the handler is invoked once for each event.
+     *
+     * @param events The list of events of which to handle
+     * @throws HandlerException When an exception occurs during the processing of the events
+     */
+    public void handleAll(@Nonnull List<? extends Handleable> events) throws HandlerException {
+        if (batch) {
+            invoke(events);
+            return;
+        }
+
+        for (final Handleable event : events) {
+            invoke(event);
+        }
+    }
+
+    /**
+     * Invokes the dispatcher, translating any throwable into a handler exception.
+     *
+     * @param argument The argument to pass to the handler method
+     * @throws HandlerException When an exception occurs during the invocation of the handler
+     */
+    private void invoke(@Nonnull Object argument) throws HandlerException {
         try {
-            method.invoke(listener, event);
+            dispatcher.dispatch(listener, argument);
         } catch (final IllegalAccessException e) {
             throw new HandlerException("This handler is not accessible from the event processing thread.", e);
         } catch (final InvocationTargetException e) {
             throw new HandlerException("The handler method threw an exception during the processing of the event.", e);
         } catch (final ClassCastException e) {
-            throw new HandlerException("The event could not be cast to the parameter type of the handler method.", e);
+            if (!batch && !eventType.isInstance(argument)) {
+                throw new HandlerException("The event could not be cast to the parameter type of the handler method.", e);
+            }
+
+            throw new HandlerException("The handler method threw an exception during the processing of the event.", e);
         } catch (final Throwable e) {
-            throw new HandlerException("An unknown error occurred. View the stack trace for more information.", e);
+            throw new HandlerException("The handler method threw an exception during the processing of the event.", e);
         }
     }
+
+    //
+    // Resolution
+    //
+
+    /**
+     * Resolves the type of event a handler method accepts. This is the parameter type of
+     * the method for regular handlers, and the element type of the list for batch handlers.
+     *
+     * @param method The method of which to resolve the event type of
+     * @return The type of event the method accepts, {@code null} if the method is not a valid handler
+     */
+    @Nullable
+    public static Class<?> eventTypeOf(@Nonnull Method method) {
+        if (method.getParameterCount() != 1) return null;
+
+        final Class<?> parameter = method.getParameterTypes()[0];
+        if (Handleable.class.isAssignableFrom(parameter)) return parameter;
+        if (parameter != List.class) return null;
+
+        // Resolve the element type of the list (e.g. List<E> or List<? extends E>)
+        if (!(method.getGenericParameterTypes()[0] instanceof ParameterizedType list)) return null;
+
+        Type element = list.getActualTypeArguments()[0];
+        if (element instanceof WildcardType wildcard) element = wildcard.getUpperBounds()[0];
+        if (element instanceof ParameterizedType parameterized) element = parameterized.getRawType();
+
+        if (!(element instanceof Class<?> elementClass)) return null;
+        return Handleable.class.isAssignableFrom(elementClass) ? elementClass : null;
+    }
+
+    //
+    // Equality
+    //
+
+    /**
+     * Checks for equality between this handler reference and the provided object.
+     *
+     * @param obj The object to compare to
+     * @return {@code true} if the other object references the same handler of the same listener with the same key
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof HandlerReference other)) return false;
+        return listener.equals(other.listener) && method.equals(other.method) && Objects.equals(key, other.key);
+    }
+
+    /**
+     * Returns the hash code of this handler reference.
+     *
+     * @return The hash code of this handler reference
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(listener, method, key);
+    }
+
+    //
+    // Serialization
+    //
+
+    /**
+     * Serializes this handler reference into a string for debugging purposes.
+     *
+     * @return The string representation of this handler reference
+     */
+    @Nonnull
+    @Override
+    public String toString() {
+        return "HandlerReference{" +
+                "listener=" + listener +
+                ", method=" + method.getName() +
+                ", priority=" + priority +
+                (key != null ? ", key=" + key : "") +
+                "}";
+    }
 }
@@ -0,0 +1,45 @@
+package civitas.celestis.event;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.List;
+
+/**
+ * A static table of the event handlers of a listener class. Handler tables are generated
+ * at compile time by {@link civitas.celestis.event.processing.HandlerTableProcessor HandlerTableProcessor}
+ * for every class which declares {@link EventHandler} methods. Each generated table resolves
+ * its handler methods once, and dispatches events by directly calling the handler methods,
+ * which avoids both the reflective scan and the runtime compilation of handler methods.
+ * <p>
+ * The generated table of a listener class is named after the binary name of the class,
+ * suffixed with {@link #SUFFIX}, and is located in the same package. When present, it is
+ * used by {@link Listener#getHandlerReferences()} in place of the reflective scan.
+ * </p>
+ *
+ * @param <L> The type of listener this table contains the handlers of
+ * @see Listener
+ * @see HandlerReference
+ */
+public interface HandlerTable<L extends Listener> {
+    //
+    // Constants
+    //
+
+    /**
+     * The suffix appended to the binary name of a listener class to name its handler table.
+     */
+    String SUFFIX = "$HandlerTable";
+
+    //
+    // Methods
+    //
+
+    /**
+     * Creates the references to every valid handler method of the provided listener.
+     *
+     * @param listener The listener instance to create the handler references of
+     * @return A list containing references to every valid handler method of the listener
+     */
+    @Nonnull
+    List<HandlerReference> getHandlerReferences(@Nonnull L listener);
+}
@@ -0,0 +1,79 @@
+package civitas.celestis.event;
+
+import civitas.celestis.exception.IllegalInstanceException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * Resolves the generated {@link HandlerTable} of listener classes. The result of the lookup
+ * is cached per class, so the generated table is only searched for once per listener class.
+ *
+ * @see HandlerTable
+ */
+final class HandlerTables {
+    //
+    // Constants
+    //
+
+    /**
+     * The cache of handler tables, which holds {@code null} for classes without a usable table.
+     */
+    private static final ClassValue<HandlerTable<Listener>> TABLES = new ClassValue<>() {
+        @Override
+        protected HandlerTable<Listener> computeValue(@Nonnull Class<?> type) {
+            return load(type);
+        }
+    };
+
+    //
+    // Methods
+    //
+
+    /**
+     * Returns the generated handler table of the provided listener class.
+     *
+     * @param type The listener class of which to get the handler table of
+     * @return The handler table if present, {@code null} otherwise
+     */
+    @Nullable
+    static HandlerTable<Listener> get(@Nonnull Class<? extends Listener> type) {
+        return TABLES.get(type);
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Loads and instantiates the generated handler table of a listener class.
+     * Tables which are missing or cannot be loaded are treated as absent.
+     *
+     * @param type The listener class of which to load the handler table of
+     * @return The handler table if present, {@code null} otherwise
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static HandlerTable<Listener> load(@Nonnull Class<?> type) {
+        try {
+            final Class<?> table = Class.forName(type.getName() + HandlerTable.SUFFIX, true, type.getClassLoader());
+            if (!HandlerTable.class.isAssignableFrom(table)) return null;
+
+            return (HandlerTable<Listener>) table.getConstructor().newInstance();
+        } catch (final ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    //
+    // Miscellaneous
+    //
+
+    /**
+     * Private constructor to prevent instantiation.
+     *
+     * @throws IllegalInstanceException Always
+     */
+    private HandlerTables() throws IllegalInstanceException {
+        throw new IllegalInstanceException(this);
+    }
+}
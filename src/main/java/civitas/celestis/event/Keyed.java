@@ -0,0 +1,24 @@
+package civitas.celestis.event;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * An event which is scoped to a key, such as the identifier of the entity it concerns.
+ * Besides the regular handlers of its type, a keyed event is dispatched to the handlers
+ * of listeners which were registered with an equal key, and to no other keyed handlers.
+ * Event managers index keyed handlers by their key, so dispatching a keyed event is
+ * proportional to the handlers which are interested in its key, regardless of how many
+ * keyed listeners are registered.
+ *
+ * @see Handleable
+ * @see civitas.celestis.event.lifecycle.EventManager#register(Listener, Object)
+ */
+public interface Keyed extends Handleable {
+    /**
+     * Returns the key this event is scoped to.
+     *
+     * @return The key of this event, {@code null} if this event is not scoped to a key
+     */
+    @Nullable
+    Object getKey();
+}
@@ -11,6 +11,11 @@ import java.util.List;
  * A marker interface which marks an object as an event handler.
  * Methods marked with the {@link EventHandler} annotation will be treated as
  * event handler methods.
+ * <p>
+ * Handler methods either take a single event, or a {@link List} of events. The latter
+ * form declares a batch handler, which receives every event of its type which an event
+ * thread has drained from its queue at once, instead of being invoked once per event.
+ * </p>
  *
  * @see Handleable
  * @see Event
@@ -20,18 +25,27 @@ public interface Listener {
     /**
      * Searches through all declared methods of this event listener, collects all valid
      * event handlers, then returns the collection of references to the event handlers.
+     * Each handler method is compiled into a {@link HandlerDispatcher} upon the creation
+     * of its reference, so this should not be called on a per-event basis.
+     * <p>
+     * If a {@link HandlerTable} was generated for the class of this listener at compile time,
+     * the handlers are created from the table instead, which neither scans nor compiles the
+     * handler methods at runtime.
+     * </p>
      * <p><b>Modify this method at your own risk.</b></p>
      *
      * @return A collection containing references to every valid handler method of this class
      */
     @Nonnull
     default Collection<HandlerReference> getHandlerReferences() {
+        final HandlerTable<Listener> table = HandlerTables.get(getClass());
+        if (table != null) return table.getHandlerReferences(this);
+
         final List<HandlerReference> handlers = new ArrayList<>();
 
         for (final Method method : getClass().getDeclaredMethods()) {
             if (!method.isAnnotationPresent(EventHandler.class)) continue;
-            if (method.getParameterCount() != 1) continue;
-            if (!Handleable.class.isAssignableFrom(method.getParameterTypes()[0])) continue;
+            if (HandlerReference.eventTypeOf(method) == null) continue;
 
             handlers.add(new HandlerReference(this, method));
         }
@@ -0,0 +1,168 @@
+package civitas.celestis.event;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * An event which can be recycled by an {@link EventPool} once it has been fully processed.
+ * Pooled events are intended for high-frequency event types, where allocating a new event
+ * per call is a significant cost. Pooled events must be mutable, and must restore their
+ * initial state in {@link #reset()}.
+ * <p>
+ * Pooled events are reference counted. An event acquired from a pool holds one reference,
+ * which is transferred to the event manager when the event is called. The event manager
+ * releases that reference once every handler has processed the event, and holds additional
+ * references while asynchronous handlers are still running. Once every reference has been
+ * released, the event is reset and returned to its pool. Handlers which retain a pooled event
+ * beyond their invocation must therefore call {@link #retain()}, then {@link #release()} once
+ * they no longer require the event.
+ * </p>
+ * <p>
+ * A pooled event which was created directly instead of being acquired from a pool is unmanaged.
+ * Its references are not counted, {@link #retain()} and {@link #release()} have no effect,
+ * and it is left to the garbage collector once it is no longer referenced.
+ * </p>
+ * <p>
+ * The cause of a pooled event is assigned upon acquisition, and is not stored in
+ * {@link Event#cause}. Use {@link #getCause()} to retrieve it. The cause is retained
+ * according to the {@link EventCauses#getRetention() cause retention} at the time of acquisition.
+ * </p>
+ *
+ * @see EventPool
+ * @see Event
+ */
+public abstract class PooledEvent extends Event {
+    //
+    // Constants
+    //
+
+    /**
+     * The updater of {@link #references}.
+     */
+    private static final AtomicIntegerFieldUpdater<PooledEvent> REFERENCES =
+            AtomicIntegerFieldUpdater.newUpdater(PooledEvent.class, "references");
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new pooled event. This should only be called by the factory of an {@link EventPool}.
+     */
+    protected PooledEvent() {
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The pool this event was acquired from.
+     */
+    @Nullable
+    private EventPool<?> pool = null;
+
+    /**
+     * The cause of this event, as retained by the cause retention.
+     */
+    @Nullable
+    private Handleable origin = null;
+
+    /**
+     * The number of references held to this event.
+     */
+    private volatile int references = 0;
+
+    //
+    // Getters
+    //
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    public Handleable getCause() {
+        return EventCauses.resolve(origin);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    public UUID getCauseId() {
+        final Handleable cause = origin;
+        return cause != null ? cause.getUniqueId() : null;
+    }
+
+    //
+    // Lifecycle
+    //
+
+    /**
+     * Called by the pool upon acquisition of this event.
+     *
+     * @param pool  The pool this event was acquired from
+     * @param cause The cause of this event
+     */
+    final void acquired(@Nonnull EventPool<?> pool, @Nullable Handleable cause) {
+        this.pool = pool;
+        this.origin = EventCauses.retain(cause);
+        renewUniqueId();
+        REFERENCES.set(this, 1);
+    }
+
+    /**
+     * Acquires an additional reference to this event, preventing it from being recycled
+     * until the reference is {@link #release() released}. This has no effect if this
+     * event was not acquired from a pool.
+     *
+     * @return This event
+     */
+    @Nonnull
+    public final PooledEvent retain() {
+        if (pool != null) REFERENCES.incrementAndGet(this);
+        return this;
+    }
+
+    /**
+     * Releases a reference to this event. Once every reference has been released,
+     * this event is reset and returned to its pool. This event must not be accessed
+     * after releasing a reference to it, unless another reference is still held.
+     * This has no effect if this event was not acquired from a pool.
+     */
+    public final void release() {
+        // Events which were created directly are not managed by a pool
+        if (pool == null) return;
+
+        final int remaining = REFERENCES.decrementAndGet(this);
+        if (remaining > 0) return;
+
+        if (remaining < 0) {
+            throw new IllegalStateException("A pooled event was released more times than it was acquired.");
+        }
+
+        final EventPool<?> owner = pool;
+
+        pool = null;
+        origin = null;
+        reset();
+
+        owner.recycle(this);
+    }
+
+    /**
+     * Restores the initial state of this event before it is returned to its pool.
+     * Subclasses should clear every reference they hold, so that pooled events
+     * do not retain other objects.
+     */
+    protected abstract void reset();
+}
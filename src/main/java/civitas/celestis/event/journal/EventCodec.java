@@ -0,0 +1,42 @@
+package civitas.celestis.event.journal;
+
+import civitas.celestis.event.Handleable;
+import jakarta.annotation.Nonnull;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Encodes events of a certain type into a compact binary form, and decodes them back.
+ * The unique identifier, cause identifier, and timestamp of every event are written by
+ * the journal itself, so codecs only need to encode the properties specific to the event.
+ * <p>
+ * Codecs may write past the capacity of the provided buffer, in which case the journal
+ * retries with a larger buffer. Codecs must therefore not retain any state between calls.
+ * </p>
+ *
+ * @param <E> The type of event this codec encodes
+ * @see JournalCodecs
+ * @see EventJournal
+ */
+public interface EventCodec<E extends Handleable> {
+    /**
+     * Writes the properties of an event to the buffer, starting at its current position.
+     *
+     * @param event  The event to encode
+     * @param buffer The buffer to write to
+     * @throws java.nio.BufferOverflowException When the buffer does not have enough space remaining
+     */
+    void write(@Nonnull E event, @Nonnull ByteBuffer buffer);
+
+    /**
+     * Reads an event from the buffer, which contains exactly the bytes written by
+     * {@link #write(Handleable, ByteBuffer)}.
+     *
+     * @param buffer   The buffer to read from
+     * @param uniqueId The unique identifier the event was recorded with
+     * @return The decoded event
+     */
+    @Nonnull
+    E read(@Nonnull ByteBuffer buffer, @Nonnull UUID uniqueId);
+}
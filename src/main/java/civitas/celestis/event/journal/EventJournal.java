@@ -0,0 +1,569 @@
+package civitas.celestis.event.journal;
+
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.lifecycle.BackoffIdleStrategy;
+import civitas.celestis.event.lifecycle.IdleStrategy;
+import civitas.celestis.util.Module;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An append-only journal of events, which is written to a directory of memory-mapped
+ * segment files. Events are appended from any thread without blocking; they are encoded
+ * by the appending thread into a pooled buffer, which requires no I/O, and the encoded
+ * records are written by the dedicated writer thread of the journal. Once a segment is
+ * full, the writer continues in a new segment.
+ * <p>
+ * The writer drains every pending event at once, and writes them as one group. If group
+ * commit is enabled, the segment is forced to the storage device once per group, which
+ * amortizes the cost of synchronization across every event of the group.
+ * </p>
+ * <p>
+ * Events are encoded by the {@link EventCodec} registered for their class in the
+ * {@link JournalCodecs} of the journal. Events without a codec are not journaled.
+ * As events are encoded before they are handed over to the writer, the journal records
+ * the state of each event at the time it was appended, and the writer never accesses an
+ * event while it is being handled.
+ * </p>
+ *
+ * @see JournaledEventManager
+ * @see JournalReplayer
+ */
+public final class EventJournal implements Module {
+    //
+    // Constants
+    //
+
+    /**
+     * The default size of each segment in bytes. (64 MiB)
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The maximum number of events written as one group.
+     */
+    public static final int MAX_GROUP_SIZE = 4096;
+
+    /**
+     * The initial capacity of the buffers events are encoded into.
+     */
+    private static final int BUFFER_SIZE = 256;
+
+    /**
+     * The maximum capacity of a buffer which is returned to the pool after it has been written.
+     */
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new event journal with group commit enabled.
+     *
+     * @param directory The directory to write the segments of the journal to
+     * @param codecs    The registry of codecs to encode events with
+     * @throws IOException When the directory cannot be created or listed
+     */
+    public EventJournal(@Nonnull Path directory, @Nonnull JournalCodecs codecs) throws IOException {
+        this(directory, codecs, DEFAULT_SEGMENT_SIZE, true, new BackoffIdleStrategy(), System.out);
+    }
+
+    /**
+     * Creates a new event journal. New segments are always created after the existing
+     * segments of the directory, so that an existing journal is never overwritten.
+     *
+     * @param directory    The directory to write the segments of the journal to
+     * @param codecs       The registry of codecs to encode events with
+     * @param segmentSize  The size of each segment in bytes
+     * @param groupCommit  Whether to force each group of events to the storage device
+     * @param idleStrategy The strategy to use while no events are pending
+     * @param printStream  The print stream to print error messages to
+     * @throws IOException When the directory cannot be created or listed
+     */
+    public EventJournal(
+            @Nonnull Path directory,
+            @Nonnull JournalCodecs codecs,
+            int segmentSize,
+            boolean groupCommit,
+            @Nonnull IdleStrategy idleStrategy,
+            @Nonnull PrintStream printStream
+    ) throws IOException {
+        if (segmentSize <= Segments.HEADER_SIZE + Integer.BYTES + Segments.RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("The segment size is too small to hold any event.");
+        }
+
+        Files.createDirectories(directory);
+
+        this.directory = directory;
+        this.codecs = Objects.requireNonNull(codecs);
+        this.segmentSize = segmentSize;
+        this.groupCommit = groupCommit;
+        this.idleStrategy = Objects.requireNonNull(idleStrategy);
+        this.printStream = Objects.requireNonNull(printStream);
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.buffers = new ConcurrentLinkedQueue<>();
+        this.written = new LongAdder();
+        this.skipped = new LongAdder();
+        this.nextSegment = Segments.nextIndex(directory);
+        this.epochBase = System.currentTimeMillis() * 1_000_000L;
+        this.nanoBase = System.nanoTime();
+        this.writer = new Thread(this::write, "EventJournal");
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The directory of the journal.
+     */
+    @Nonnull
+    private final Path directory;
+
+    /**
+     * The registry of codecs.
+     */
+    @Nonnull
+    private final JournalCodecs codecs;
+
+    /**
+     * The size of each segment in bytes.
+     */
+    private final int segmentSize;
+
+    /**
+     * Whether to force each group of events to the storage device.
+     */
+    private final boolean groupCommit;
+
+    /**
+     * The strategy to use while no events are pending.
+     */
+    @Nonnull
+    private final IdleStrategy idleStrategy;
+
+    /**
+     * The print stream to print error messages to.
+     */
+    @Nonnull
+    private final PrintStream printStream;
+
+    /**
+     * The queue of encoded records pending to be written.
+     */
+    @Nonnull
+    private final Queue<ByteBuffer> pending;
+
+    /**
+     * The pool of buffers to encode events into. Buffers are returned once they have been written.
+     */
+    @Nonnull
+    private final Queue<ByteBuffer> buffers;
+
+    /**
+     * The number of events written to the journal.
+     */
+    @Nonnull
+    private final LongAdder written;
+
+    /**
+     * The number of events which were not journaled.
+     */
+    @Nonnull
+    private final LongAdder skipped;
+
+    /**
+     * The time since the epoch in nanoseconds at {@link #nanoBase}.
+     */
+    private final long epochBase;
+
+    /**
+     * The value of {@link System#nanoTime()} upon construction.
+     */
+    private final long nanoBase;
+
+    /**
+     * The writer thread.
+     */
+    @Nonnull
+    private final Thread writer;
+
+    /**
+     * Whether this journal accepts events.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * The index of the next segment to create. Only accessed by the writer thread.
+     */
+    private long nextSegment;
+
+    /**
+     * The channel of the current segment. Only accessed by the writer thread.
+     */
+    @Nullable
+    private FileChannel channel = null;
+
+    /**
+     * The mapped buffer of the current segment. Only accessed by the writer thread.
+     */
+    @Nullable
+    private MappedByteBuffer segment = null;
+
+    //
+    // Getters
+    //
+
+    /**
+     * Returns the directory of this journal.
+     *
+     * @return The directory of this journal
+     */
+    @Nonnull
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the number of events written to this journal.
+     *
+     * @return The number of written events
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Returns the number of events which were not journaled, either because no codec
+     * was registered for their class, or because they could not be encoded.
+     *
+     * @return The number of skipped events
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    //
+    // Methods
+    //
+
+    /**
+     * Appends an event to this journal. The event is encoded by the calling thread,
+     * which never blocks. The event can be modified as soon as this method returns.
+     *
+     * @param event The event to append
+     * @return {@code true} if the event will be journaled, {@code false} if this journal
+     * has been stopped, or if the event could not be encoded
+     */
+    public boolean append(@Nonnull Handleable event) {
+        final ByteBuffer record = encode(event);
+        return record != null && append(record);
+    }
+
+    /**
+     * Encodes an event into a buffer of the pool, without appending it to this journal.
+     * The returned record must be passed to either {@link #append(ByteBuffer)} or
+     * {@link #recycle(ByteBuffer)}.
+     *
+     * @param event The event to encode
+     * @return The encoded record, {@code null} if this journal has been stopped, or if
+     * no codec is registered for the class of the event, or if its codec failed
+     */
+    @Nullable
+    ByteBuffer encode(@Nonnull Handleable event) {
+        final JournalCodecs.Registration<?> registration = running ? codecs.get(event.getClass()) : null;
+
+        if (registration == null) {
+            skipped.increment();
+            return null;
+        }
+
+        final ByteBuffer buffer = buffers.poll();
+        final ByteBuffer record = encode(registration, event, buffer != null ? buffer : ByteBuffer.allocate(BUFFER_SIZE));
+
+        if (record == null) skipped.increment();
+        return record;
+    }
+
+    /**
+     * Appends an encoded record to this journal.
+     *
+     * @param record The record returned by {@link #encode(Handleable)}
+     * @return {@code true} if the record will be written, {@code false} if this journal has been stopped
+     */
+    boolean append(@Nonnull ByteBuffer record) {
+        pending.offer(record);
+
+        // If the journal was stopped concurrently, the writer may have already drained
+        if (!running && pending.remove(record)) {
+            skipped.increment();
+            recycle(record);
+            return false;
+        }
+
+        idleStrategy.signal(writer);
+        return true;
+    }
+
+    /**
+     * Returns the buffer of a record to the pool. The record must not be used afterward.
+     *
+     * @param record The record to recycle
+     */
+    void recycle(@Nonnull ByteBuffer record) {
+        if (record.capacity() <= MAX_POOLED_BUFFER_SIZE) buffers.offer(record);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initialize() {
+        // Nothing to do here
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Events which were appended before this call are still written.
+     */
+    @Override
+    public void interrupt() {
+        running = false;
+        idleStrategy.signal(writer);
+    }
+
+    /**
+     * {@inheritDoc}
+     * This waits for the writer to write every pending event and close the current segment.
+     */
+    @Override
+    public void terminate() {
+        interrupt();
+
+        try {
+            if (writer.isAlive()) writer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //
+    // Writer
+    //
+
+    /**
+     * The loop of the writer thread.
+     */
+    private void write() {
+        try {
+
+            // Enter loop while the journal is accepting events
+            while (running) {
+
+                // Poll the first pending record
+                ByteBuffer record = pending.poll();
+
+                // Idle if no record is pending
+                if (record == null) {
+                    idleStrategy.idle();
+                    continue;
+                }
+
+                // Reset the idle state, as there is work to do
+                idleStrategy.reset();
+
+                // Write every pending event up to the maximum group size, then commit the group
+                int count = 0;
+
+                do {
+                    write(record);
+                } while (++count < MAX_GROUP_SIZE && (record = pending.poll()) != null);
+
+                commit();
+            }
+
+            // Write the events which were appended before the journal was stopped
+            for (ByteBuffer record = pending.poll(); record != null; record = pending.poll()) {
+                write(record);
+            }
+
+            commit();
+
+        } catch (final IOException e) {
+
+            // Print the stack trace to the provided print stream
+            e.printStackTrace(printStream);
+
+        } finally {
+            running = false;
+
+            // Discard the records which can no longer be written
+            for (ByteBuffer record = pending.poll(); record != null; record = pending.poll()) {
+                skipped.increment();
+            }
+
+            close();
+        }
+    }
+
+    /**
+     * Writes an encoded record to the current segment, then returns its buffer to the pool.
+     *
+     * @param record The record to write
+     * @throws IOException When a new segment cannot be created
+     */
+    private void write(@Nonnull ByteBuffer record) throws IOException {
+        try {
+            final int length = record.remaining();
+
+            if (Segments.HEADER_SIZE + Integer.BYTES + length > segmentSize) {
+                printStream.println("A record of " + length + " bytes does not fit in a journal segment.");
+                skipped.increment();
+                return;
+            }
+
+            if (segment == null || segment.remaining() < Integer.BYTES + length) roll();
+
+            // Write the record before its length, so that a partially written record is never read
+            final int start = segment.position();
+
+            segment.position(start + Integer.BYTES);
+            segment.put(record);
+            segment.putInt(start, length);
+
+            written.increment();
+        } finally {
+            recycle(record);
+        }
+    }
+
+    /**
+     * Encodes an event into the provided buffer, growing the buffer as required.
+     *
+     * @param registration The registration of the codec of the event
+     * @param event        The event to encode
+     * @param buffer       The buffer to encode the event into
+     * @return The flipped buffer containing the encoded record, {@code null} if the codec failed
+     */
+    @Nullable
+    private ByteBuffer encode(
+            @Nonnull JournalCodecs.Registration<?> registration,
+            @Nonnull Handleable event,
+            @Nonnull ByteBuffer buffer
+    ) {
+        final long timestamp = epochBase + (System.nanoTime() - nanoBase);
+
+        while (true) {
+            buffer.clear();
+
+            try {
+                buffer.putInt(registration.typeId());
+                buffer.putLong(timestamp);
+
+                final UUID uniqueId = event.getUniqueId();
+                buffer.putLong(uniqueId.getMostSignificantBits());
+                buffer.putLong(uniqueId.getLeastSignificantBits());
+
+                final UUID causeId = event.getCauseId();
+                buffer.put((byte) (causeId != null ? 1 : 0));
+
+                if (causeId != null) {
+                    buffer.putLong(causeId.getMostSignificantBits());
+                    buffer.putLong(causeId.getLeastSignificantBits());
+                }
+
+                registration.write(event, buffer);
+                return buffer.flip();
+
+            } catch (final BufferOverflowException e) {
+
+                // Retry with a buffer of twice the capacity
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+
+            } catch (final RuntimeException e) {
+
+                // Print the stack trace to the provided print stream
+                e.printStackTrace(printStream);
+                recycle(buffer);
+                return null;
+
+            }
+        }
+    }
+
+    /**
+     * Forces the current segment to the storage device if group commit is enabled.
+     */
+    private void commit() {
+        if (groupCommit && segment != null) segment.force();
+    }
+
+    /**
+     * Closes the current segment, and creates and maps the next segment.
+     *
+     * @throws IOException When the next segment cannot be created
+     */
+    private void roll() throws IOException {
+        close();
+
+        final FileChannel next = FileChannel.open(
+                Segments.path(directory, nextSegment++),
+                StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        );
+
+        try {
+            segment = next.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (final IOException e) {
+            next.close();
+            throw e;
+        }
+
+        channel = next;
+        segment.putInt(Segments.MAGIC);
+        segment.putInt(Segments.VERSION);
+    }
+
+    /**
+     * Forces and closes the current segment if present.
+     */
+    private void close() {
+        if (segment != null) segment.force();
+        segment = null;
+
+        if (channel == null) return;
+
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            e.printStackTrace(printStream);
+        }
+
+        channel = null;
+    }
+}
@@ -0,0 +1,145 @@
+package civitas.celestis.event.journal;
+
+import civitas.celestis.event.Handleable;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe registry of {@link EventCodec}s. Every codec is registered under a
+ * numeric type identifier, which is written to the journal in place of the class of
+ * the event. Type identifiers must therefore remain stable across versions of an
+ * application for its journals to remain readable.
+ * <p>
+ * Codecs are looked up by the exact class of an event. Events whose class has no
+ * registered codec are not journaled.
+ * </p>
+ *
+ * @see EventCodec
+ * @see EventJournal
+ * @see JournalReplayer
+ */
+public class JournalCodecs {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new empty codec registry.
+     */
+    public JournalCodecs() {
+        this.byClass = new ConcurrentHashMap<>();
+        this.byTypeId = new ConcurrentHashMap<>();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The map of registrations by event class.
+     */
+    @Nonnull
+    private final Map<Class<?>, Registration<?>> byClass;
+
+    /**
+     * The map of registrations by type identifier.
+     */
+    @Nonnull
+    private final Map<Integer, Registration<?>> byTypeId;
+
+    //
+    // Methods
+    //
+
+    /**
+     * Registers a codec for events of the provided class.
+     *
+     * @param typeId The type identifier to write to the journal
+     * @param type   The exact class of events to encode with the codec
+     * @param codec  The codec to encode and decode events with
+     * @param <E>    The type of event
+     * @throws IllegalArgumentException When the type identifier or class is already registered
+     */
+    public synchronized <E extends Handleable> void register(
+            int typeId,
+            @Nonnull Class<E> type,
+            @Nonnull EventCodec<? super E> codec
+    ) {
+        if (byTypeId.containsKey(typeId) || byClass.containsKey(type)) {
+            throw new IllegalArgumentException("The type identifier or event class is already registered.");
+        }
+
+        final Registration<E> registration = new Registration<>(typeId, type, Objects.requireNonNull(codec));
+
+        byClass.put(type, registration);
+        byTypeId.put(typeId, registration);
+    }
+
+    /**
+     * Returns the registration of the provided event class.
+     *
+     * @param type The exact class of the event
+     * @return The registration if present, {@code null} otherwise
+     */
+    @Nullable
+    Registration<?> get(@Nonnull Class<?> type) {
+        return byClass.get(type);
+    }
+
+    /**
+     * Returns the registration of the provided type identifier.
+     *
+     * @param typeId The type identifier
+     * @return The registration if present, {@code null} otherwise
+     */
+    @Nullable
+    Registration<?> get(int typeId) {
+        return byTypeId.get(typeId);
+    }
+
+    //
+    // Registrations
+    //
+
+    /**
+     * A registered codec.
+     *
+     * @param typeId The type identifier written to the journal
+     * @param type   The exact class of events encoded with the codec
+     * @param codec  The codec
+     * @param <E>    The type of event
+     */
+    record Registration<E extends Handleable>(
+            int typeId,
+            @Nonnull Class<E> type,
+            @Nonnull EventCodec<? super E> codec
+    ) {
+        /**
+         * Encodes an event of the registered class.
+         *
+         * @param event  The event to encode
+         * @param buffer The buffer to write to
+         */
+        void write(@Nonnull Handleable event, @Nonnull ByteBuffer buffer) {
+            codec.write(type.cast(event), buffer);
+        }
+
+        /**
+         * Decodes an event of the registered class.
+         *
+         * @param buffer   The buffer to read from
+         * @param uniqueId The unique identifier the event was recorded with
+         * @return The decoded event
+         */
+        @Nonnull
+        Handleable read(@Nonnull ByteBuffer buffer, @Nonnull UUID uniqueId) {
+            return codec.read(buffer, uniqueId);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package civitas.celestis.event.journal;
+
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.lifecycle.EventManager;
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reads the events of an {@link EventJournal}, and calls them to an event manager in the
+ * order they were recorded. Events are decoded by the codecs registered under their type
+ * identifiers. Records of unknown type identifiers are skipped.
+ * <p>
+ * Replayed events retain their original unique identifiers. Their causes are not restored,
+ * as only the identifiers of causes are recorded.
+ * </p>
+ *
+ * @see EventJournal
+ * @see ReplaySpeed
+ */
+public class JournalReplayer {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new journal replayer.
+     *
+     * @param directory The directory of the journal to replay
+     * @param codecs    The registry of codecs to decode events with
+     */
+    public JournalReplayer(@Nonnull Path directory, @Nonnull JournalCodecs codecs) {
+        this.directory = Objects.requireNonNull(directory);
+        this.codecs = Objects.requireNonNull(codecs);
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The directory of the journal.
+     */
+    @Nonnull
+    private final Path directory;
+
+    /**
+     * The registry of codecs.
+     */
+    @Nonnull
+    private final JournalCodecs codecs;
+
+    //
+    // Methods
+    //
+
+    /**
+     * Replays every event of the journal to the provided event manager. This blocks the calling
+     * thread until every event has been called, or until the calling thread is interrupted.
+     *
+     * @param manager The event manager to call the events to
+     * @param speed   The speed at which to call the events
+     * @return The number of events which were called
+     * @throws IOException When a segment of the journal cannot be read, or is not a valid segment
+     */
+    public long replay(@Nonnull EventManager manager, @Nonnull ReplaySpeed speed) throws IOException {
+        final long start = System.nanoTime();
+        long first = Long.MIN_VALUE;
+        long count = 0;
+
+        for (final Path path : Segments.list(directory)) {
+            final MappedByteBuffer segment;
+
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+
+            if (segment.remaining() < Segments.HEADER_SIZE
+                    || segment.getInt() != Segments.MAGIC
+                    || segment.getInt() != Segments.VERSION) {
+                throw new IOException("The file is not a valid journal segment: " + path);
+            }
+
+            while (segment.remaining() >= Integer.BYTES) {
+                final int length = segment.getInt();
+                if (length <= 0) break; // End of the records of this segment
+
+                if (length > segment.remaining()) {
+                    throw new IOException("The journal segment is truncated: " + path);
+                }
+
+                final ByteBuffer record = segment.slice(segment.position(), length);
+                segment.position(segment.position() + length);
+
+                final JournalCodecs.Registration<?> registration = codecs.get(record.getInt());
+                final long timestamp = record.getLong();
+                final UUID uniqueId = new UUID(record.getLong(), record.getLong());
+                if (record.get() != 0) record.position(record.position() + Long.BYTES * 2);
+
+                if (registration == null) continue;
+
+                // Wait until the event is due if replaying at the original speed
+                if (first == Long.MIN_VALUE) first = timestamp;
+                if (speed == ReplaySpeed.ORIGINAL && !awaitUntil(start + (timestamp - first))) return count;
+
+                final Handleable event = registration.read(record.slice(), uniqueId);
+                manager.call(event);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Parks the calling thread until the provided time.
+     *
+     * @param deadline The value of {@link System#nanoTime()} to wait for
+     * @return {@code false} if the calling thread was interrupted while waiting
+     */
+    private static boolean awaitUntil(long deadline) {
+        for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) return false;
+        }
+
+        return !Thread.currentThread().isInterrupted();
+    }
+}
@@ -0,0 +1,361 @@
+package civitas.celestis.event.journal;
+
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.Listener;
+import civitas.celestis.event.lifecycle.EventManager;
+import civitas.celestis.event.metrics.EventSnapshot;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An event manager which appends every event it is called to an {@link EventJournal},
+ * then forwards the event to another event manager. Events are encoded by the calling
+ * thread before they are forwarded, as they may be handled as soon as they are forwarded.
+ * The encoded records are only appended once the event manager has accepted the events,
+ * and are discarded if it refuses them by throwing an exception. Appending enqueues the
+ * records to the writer of the journal, and therefore never blocks the calling thread or
+ * the threads which process the events.
+ * <p>
+ * Events are journaled at least as often as they are handled. {@link #tryCall(Handleable)} and
+ * {@link #callAsync(Handleable)} report whether their event was accepted and handled, and their
+ * events are journaled exactly when it was. The other calls cannot tell an accepted event from
+ * one which the event manager discarded silently, such as by a dropping overflow policy, and
+ * journal every event which was not refused with an exception. Likewise, if
+ * {@link #callAll(Collection)} is refused with an exception, none of its events are journaled,
+ * even if some of them were accepted.
+ * </p>
+ * <p>
+ * The lifecycle of the journal is bound to the lifecycle of this event manager.
+ * </p>
+ *
+ * @see EventJournal
+ * @see JournalReplayer
+ */
+public class JournaledEventManager implements EventManager {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new journaled event manager.
+     *
+     * @param manager The event manager to forward events to
+     * @param journal The journal to append events to
+     */
+    public JournaledEventManager(@Nonnull EventManager manager, @Nonnull EventJournal journal) {
+        this.manager = Objects.requireNonNull(manager);
+        this.journal = Objects.requireNonNull(journal);
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The event manager to forward events to.
+     */
+    @Nonnull
+    private final EventManager manager;
+
+    /**
+     * The journal to append events to.
+     */
+    @Nonnull
+    private final EventJournal journal;
+
+    //
+    // Getters
+    //
+
+    /**
+     * Returns the journal events are appended to.
+     *
+     * @return The journal of this event manager
+     */
+    @Nonnull
+    public EventJournal getJournal() {
+        return journal;
+    }
+
+    //
+    // Methods
+    //
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event The event of which to handle
+     * @param <E>   {@inheritDoc}
+     */
+    @Override
+    public <E extends Handleable> void call(@Nonnull E event) {
+        final ByteBuffer record = journal.encode(event);
+
+        try {
+            manager.call(event);
+        } catch (final RuntimeException e) {
+            recycle(record);
+            throw e;
+        }
+
+        append(record);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The event is only journaled once it has been handled.
+     *
+     * @param event The event of which to handle
+     * @param <E>   {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public <E extends Handleable> CompletableFuture<E> callAsync(@Nonnull E event) {
+        final ByteBuffer record = journal.encode(event);
+        final CompletableFuture<E> future;
+
+        try {
+            future = manager.callAsync(event);
+        } catch (final RuntimeException e) {
+            recycle(record);
+            throw e;
+        }
+
+        if (record == null) return future;
+
+        // Events which are discarded complete their future exceptionally
+        future.whenComplete((handled, failure) -> {
+            if (failure == null) journal.append(record);
+            else journal.recycle(record);
+        });
+
+        return future;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The event is only journaled if it was accepted.
+     *
+     * @param event The event of which to handle
+     * @param <E>   {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public <E extends Handleable> boolean tryCall(@Nonnull E event) {
+        // Encode the event before it is handed over, as it may be handled as soon as it is called
+        final ByteBuffer record = journal.encode(event);
+        final boolean accepted;
+
+        try {
+            accepted = manager.tryCall(event);
+        } catch (final RuntimeException e) {
+            recycle(record);
+            throw e;
+        }
+
+        if (accepted) append(record);
+        else recycle(record);
+
+        return accepted;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param events The collection of events of which to handle
+     */
+    @Override
+    public void callAll(@Nonnull Collection<? extends Handleable> events) {
+        final List<ByteBuffer> records = new ArrayList<>(events.size());
+        for (final Handleable event : events) records.add(journal.encode(event));
+
+        try {
+            manager.callAll(events);
+        } catch (final RuntimeException e) {
+            records.forEach(this::recycle);
+            throw e;
+        }
+
+        records.forEach(this::append);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event THe event of which to prioritize
+     * @param <E>   {@inheritDoc}
+     */
+    @Override
+    public <E extends Handleable> void priorityCall(@Nonnull E event) {
+        final ByteBuffer record = journal.encode(event);
+
+        try {
+            manager.priorityCall(event);
+        } catch (final RuntimeException e) {
+            recycle(record);
+            throw e;
+        }
+
+        append(record);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event The event of which to handle
+     * @param lane  {@inheritDoc}
+     * @param <E>   {@inheritDoc}
+     */
+    @Override
+    public <E extends Handleable> void call(@Nonnull E event, int lane) {
+        final ByteBuffer record = journal.encode(event);
+
+        try {
+            manager.call(event, lane);
+        } catch (final RuntimeException e) {
+            recycle(record);
+            throw e;
+        }
+
+        append(record);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to register to this event manager
+     */
+    @Override
+    public void register(@Nonnull Listener listener) {
+        manager.register(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to register to this event manager
+     * @param key      {@inheritDoc}
+     */
+    @Override
+    public void register(@Nonnull Listener listener, @Nonnull Object key) {
+        manager.register(listener, key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listeners The iterable object containing the listeners to register
+     */
+    @Override
+    public void register(@Nonnull Iterable<? extends Listener> listeners) {
+        manager.register(listeners);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to unregister from this event manager
+     */
+    @Override
+    public void unregister(@Nonnull Listener listener) {
+        manager.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to unregister from this event manager
+     * @param key      {@inheritDoc}
+     */
+    @Override
+    public void unregister(@Nonnull Listener listener, @Nonnull Object key) {
+        manager.unregister(listener, key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listeners The iterable object containing the listeners to unregister
+     */
+    @Override
+    public void unregister(@Nonnull Iterable<? extends Listener> listeners) {
+        manager.unregister(listeners);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public EventSnapshot getMetrics() {
+        return manager.getMetrics();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initialize() {
+        journal.initialize();
+        manager.initialize();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        journal.start();
+        manager.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void interrupt() {
+        manager.interrupt();
+        journal.interrupt();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void terminate() {
+        manager.terminate();
+        journal.terminate();
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Appends an encoded record to the journal, if the event could be encoded.
+     *
+     * @param record The encoded record, {@code null} if the event could not be encoded
+     */
+    private void append(@Nullable ByteBuffer record) {
+        if (record != null) journal.append(record);
+    }
+
+    /**
+     * Returns the buffer of an encoded record to the journal, if the event could be encoded.
+     *
+     * @param record The encoded record, {@code null} if the event could not be encoded
+     */
+    private void recycle(@Nullable ByteBuffer record) {
+        if (record != null) journal.recycle(record);
+    }
+}
@@ -0,0 +1,18 @@
+package civitas.celestis.event.journal;
+
+/**
+ * The speed at which a {@link JournalReplayer} calls the events of a journal.
+ *
+ * @see JournalReplayer
+ */
+public enum ReplaySpeed {
+    /**
+     * Calls every event after the same delay relative to the first event as when it was recorded.
+     */
+    ORIGINAL,
+
+    /**
+     * Calls every event as soon as it has been read.
+     */
+    MAXIMUM
+}
@@ -0,0 +1,124 @@
+package civitas.celestis.event.journal;
+
+import civitas.celestis.exception.IllegalInstanceException;
+import jakarta.annotation.Nonnull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Contains the constants and naming of journal segment files, which are shared by
+ * the writer and the reader of journals.
+ * <p>
+ * Every segment starts with a header of {@link #HEADER_SIZE} bytes, consisting of
+ * {@link #MAGIC} and {@link #VERSION}. The header is followed by a sequence of records,
+ * each prefixed by its length in bytes as an {@code int}. A length of {@code 0} marks the
+ * end of the records of a segment, as segments are zero-filled upon creation. A record
+ * consists of the type identifier of the event as an {@code int}, the timestamp of the
+ * event in nanoseconds since the epoch as a {@code long}, the unique identifier of the
+ * event as two {@code long}s, a flag byte which is {@code 1} if the event has a cause,
+ * the unique identifier of the cause as two {@code long}s if present, and the payload
+ * written by the codec of the event.
+ * </p>
+ */
+final class Segments {
+    //
+    // Constants
+    //
+
+    /**
+     * The magic number at the start of every segment. ({@code "PLJR"})
+     */
+    static final int MAGIC = 0x504C4A52;
+
+    /**
+     * The version of the segment format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size of the header of every segment in bytes.
+     */
+    static final int HEADER_SIZE = 8;
+
+    /**
+     * The size of the fixed fields of every record in bytes, excluding the length prefix,
+     * the identifier of the cause, and the payload.
+     */
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES * 3 + 1;
+
+    /**
+     * The suffix of the names of segment files.
+     */
+    static final String SUFFIX = ".journal";
+
+    //
+    // Naming
+    //
+
+    /**
+     * Returns the path of the segment of the provided index.
+     *
+     * @param directory The directory of the journal
+     * @param index     The index of the segment
+     * @return The path of the segment
+     */
+    @Nonnull
+    static Path path(@Nonnull Path directory, long index) {
+        return directory.resolve(String.format("%016d", index) + SUFFIX);
+    }
+
+    /**
+     * Returns every segment of the provided journal directory, in order of creation.
+     *
+     * @param directory The directory of the journal
+     * @return The sorted list of segment paths
+     * @throws IOException When the directory cannot be listed
+     */
+    @Nonnull
+    static List<Path> list(@Nonnull Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Returns the index to assign to the next segment of the provided journal directory.
+     *
+     * @param directory The directory of the journal
+     * @return The index of the next segment
+     * @throws IOException When the directory cannot be listed
+     */
+    static long nextIndex(@Nonnull Path directory) throws IOException {
+        final List<Path> segments = list(directory);
+        if (segments.isEmpty()) return 0;
+
+        final String name = segments.get(segments.size() - 1).getFileName().toString();
+
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length())) + 1;
+        } catch (final NumberFormatException e) {
+            throw new IOException("The journal directory contains an invalid segment: " + name, e);
+        }
+    }
+
+    //
+    // Miscellaneous
+    //
+
+    /**
+     * Private constructor to prevent instantiation.
+     *
+     * @throws IllegalInstanceException Always
+     */
+    private Segments() throws IllegalInstanceException {
+        throw new IllegalInstanceException(this);
+    }
+}
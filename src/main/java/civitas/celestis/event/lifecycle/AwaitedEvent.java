@@ -0,0 +1,130 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.PooledEvent;
+import civitas.celestis.exception.event.EventQueueOverflowException;
+import jakarta.annotation.Nonnull;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An envelope which carries an event through an event queue together with the future which
+ * is completed once the event has been handled. The future is completed by whichever thread
+ * finishes the last handler of the event, which is either the processing thread, or the thread
+ * of the last asynchronous handler still running.
+ * <p>
+ * If the event is a {@link PooledEvent}, the future holds an additional reference to it, which
+ * is transferred to the caller upon successful completion. If the envelope is discarded by an
+ * event queue, the future is completed exceptionally and the reference is released.
+ * </p>
+ *
+ * @param <E> The type of event this envelope carries
+ * @see Envelope
+ * @see EventManager#callAsync(Handleable)
+ */
+final class AwaitedEvent<E extends Handleable> implements Envelope {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new envelope.
+     *
+     * @param event The event to carry
+     */
+    AwaitedEvent(@Nonnull E event) {
+        this.event = Objects.requireNonNull(event);
+        this.future = new CompletableFuture<>();
+        this.pending = new AtomicInteger(1);
+
+        // Hold the reference of the future
+        if (event instanceof PooledEvent pooled) pooled.retain();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The event this envelope carries.
+     */
+    @Nonnull
+    private final E event;
+
+    /**
+     * The future to complete once the event has been handled.
+     */
+    @Nonnull
+    private final CompletableFuture<E> future;
+
+    /**
+     * The number of parties which have yet to finish handling the event. This is initially
+     * one, which represents the processing thread.
+     */
+    @Nonnull
+    private final AtomicInteger pending;
+
+    //
+    // Getters
+    //
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public E getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the future which is completed once the event has been handled.
+     *
+     * @return The future of this envelope
+     */
+    @Nonnull
+    CompletableFuture<E> getFuture() {
+        return future;
+    }
+
+    //
+    // Completion
+    //
+
+    /**
+     * Registers an asynchronous handler which must finish before the future is completed.
+     * Each call must be paired with a call to {@link #complete()}.
+     */
+    void fork() {
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Marks a party as finished handling the event. The future is completed once every
+     * party, including the processing thread, has finished.
+     */
+    void complete() {
+        if (pending.decrementAndGet() == 0) future.complete(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     * This releases the event on behalf of both the event queue and the future,
+     * then completes the future exceptionally.
+     */
+    @Override
+    public void discard() {
+        final boolean discarded = future.completeExceptionally(new EventQueueOverflowException(
+                "The event was discarded by the event queue before it was handled."
+        ));
+
+        if (!discarded || !(event instanceof PooledEvent pooled)) return;
+
+        pooled.release();
+        pooled.release();
+    }
+}
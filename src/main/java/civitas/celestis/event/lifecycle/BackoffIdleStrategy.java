@@ -0,0 +1,162 @@
+package civitas.celestis.event.lifecycle;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An idle strategy which spins, then yields, then parks the consuming thread for
+ * an exponentially increasing period of time, up to a maximum period. The maximum
+ * park period is the worst-case latency added to the first event after an idle period.
+ *
+ * @see IdleStrategy
+ */
+public class BackoffIdleStrategy implements IdleStrategy {
+    //
+    // Constants
+    //
+
+    /**
+     * The default number of iterations to spin before yielding.
+     */
+    public static final int DEFAULT_SPINS = 100;
+
+    /**
+     * The default number of iterations to yield before parking.
+     */
+    public static final int DEFAULT_YIELDS = 10;
+
+    /**
+     * The default minimum park period in nanoseconds.
+     */
+    public static final long DEFAULT_MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+
+    /**
+     * The default maximum park period in nanoseconds.
+     */
+    public static final long DEFAULT_MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new backoff idle strategy with the default parameters.
+     */
+    public BackoffIdleStrategy() {
+        this(DEFAULT_SPINS, DEFAULT_YIELDS, DEFAULT_MIN_PARK_NANOS, DEFAULT_MAX_PARK_NANOS);
+    }
+
+    /**
+     * Creates a new backoff idle strategy.
+     *
+     * @param maxSpins      The number of iterations to spin before yielding
+     * @param maxYields     The number of iterations to yield before parking
+     * @param minParkNanos  The minimum park period in nanoseconds
+     * @param maxParkNanos  The maximum park period in nanoseconds
+     */
+    public BackoffIdleStrategy(int maxSpins, int maxYields, long minParkNanos, long maxParkNanos) {
+        if (maxSpins < 0 || maxYields < 0) {
+            throw new IllegalArgumentException("The number of spins and yields cannot be negative.");
+        }
+
+        if (minParkNanos < 1 || maxParkNanos < minParkNanos) {
+            throw new IllegalArgumentException("The park period must be positive, and the maximum must not be less than the minimum.");
+        }
+
+        this.maxSpins = maxSpins;
+        this.maxYields = maxYields;
+        this.minParkNanos = minParkNanos;
+        this.maxParkNanos = maxParkNanos;
+        this.parkNanos = minParkNanos;
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The number of iterations to spin before yielding.
+     */
+    private final int maxSpins;
+
+    /**
+     * The number of iterations to yield before parking.
+     */
+    private final int maxYields;
+
+    /**
+     * The minimum park period in nanoseconds.
+     */
+    private final long minParkNanos;
+
+    /**
+     * The maximum park period in nanoseconds.
+     */
+    private final long maxParkNanos;
+
+    /**
+     * The number of consecutive spinning iterations.
+     */
+    private int spins = 0;
+
+    /**
+     * The number of consecutive yielding iterations.
+     */
+    private int yields = 0;
+
+    /**
+     * The current park period in nanoseconds.
+     */
+    private long parkNanos;
+
+    //
+    // Methods
+    //
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void idle() {
+        if (spins < maxSpins) {
+            spins++;
+            Thread.onSpinWait();
+            return;
+        }
+
+        if (yields < maxYields) {
+            yields++;
+            Thread.yield();
+            return;
+        }
+
+        LockSupport.parkNanos(parkNanos);
+        parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The consumer is parked for the lesser of the current park period and the provided period.
+     *
+     * @param maxNanos {@inheritDoc}
+     */
+    @Override
+    public void idle(long maxNanos) {
+        if (spins < maxSpins || yields < maxYields || maxNanos >= parkNanos) {
+            idle();
+            return;
+        }
+
+        LockSupport.parkNanos(Math.max(maxNanos, 1));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        spins = 0;
+        yields = 0;
+        parkNanos = minParkNanos;
+    }
+}
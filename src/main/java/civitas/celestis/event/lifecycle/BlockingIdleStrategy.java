@@ -0,0 +1,77 @@
+package civitas.celestis.event.lifecycle;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An idle strategy which parks the consuming thread until a producer signals
+ * that new work is available. This consumes no CPU while idle, but every wake-up
+ * requires the producer to unpark the consumer.
+ * <p>
+ * The first idle iteration only announces that the consumer is about to block,
+ * and returns so that the consumer checks for work once more. The consumer is
+ * only parked on the second consecutive idle iteration. Since a producer always
+ * makes its work available before {@link #signal(Thread) signalling}, this ensures
+ * that no wake-up is ever lost.
+ * </p>
+ * <p>
+ * Consumers of queues which hold events back, such as a debouncing
+ * {@link CoalescingEventQueue}, are parked no longer than until the next held event is due.
+ * </p>
+ *
+ * @see IdleStrategy
+ */
+public class BlockingIdleStrategy implements IdleStrategy {
+    /**
+     * Whether the consumer may currently be parked, or is about to be.
+     */
+    private volatile boolean waiting = false;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void idle() {
+        if (!waiting) {
+            waiting = true;
+            return;
+        }
+
+        LockSupport.park(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The consumer is parked until it is signalled, or until the provided period has elapsed.
+     *
+     * @param maxNanos {@inheritDoc}
+     */
+    @Override
+    public void idle(long maxNanos) {
+        if (maxNanos == Long.MAX_VALUE || !waiting) {
+            idle();
+            return;
+        }
+
+        LockSupport.parkNanos(this, Math.max(maxNanos, 1));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        if (waiting) waiting = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param consumer The consuming thread
+     */
+    @Override
+    public void signal(@Nonnull Thread consumer) {
+        if (waiting) LockSupport.unpark(consumer);
+    }
+}
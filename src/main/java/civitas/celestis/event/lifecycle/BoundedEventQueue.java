@@ -0,0 +1,447 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.PooledEvent;
+import civitas.celestis.exception.event.EventQueueOverflowException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * An event queue with a fixed capacity. Once the queue has reached its capacity,
+ * offered events are handled according to its {@link OverflowPolicy}. This prevents
+ * the queue from growing without bound when events are called faster than they can
+ * be processed.
+ * <p>
+ * Events are stored in a preallocated ring buffer guarded by a lock, and the queue
+ * supports any number of producers and consumers. Prioritized events are inserted at
+ * the head of the queue, and are subject to the same capacity as every other event.
+ * </p>
+ * <p>
+ * An event which is not accepted by this queue, or which is discarded from this queue
+ * to make space for another event, is released if it is a {@link PooledEvent}. Callers
+ * must therefore not use a pooled event after it has been offered, regardless of whether
+ * it was accepted. The futures of discarded {@link EventManager#callAsync(Handleable) awaited}
+ * events are completed exceptionally.
+ * </p>
+ * <p>
+ * Threads which have polled from this queue are recorded as its consumers. Under the
+ * {@link OverflowPolicy#BLOCK} policy, a consumer which offers an event while this queue is
+ * full, such as a handler which calls an event to its own event manager, is never blocked,
+ * as it would be waiting for itself to make space. Its event is dropped instead, in the same
+ * way as by {@link #tryOffer(Handleable)}.
+ * </p>
+ *
+ * @see OverflowPolicy
+ * @see EventQueue
+ */
+public class BoundedEventQueue implements EventQueue {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new bounded event queue which drops offered events while it is full.
+     *
+     * @param capacity The maximum number of events this queue can hold
+     */
+    public BoundedEventQueue(int capacity) {
+        this(capacity, OverflowPolicy.DROP_NEWEST);
+    }
+
+    /**
+     * Creates a new bounded event queue. If the policy is {@link OverflowPolicy#COALESCE},
+     * events are coalesced by their class.
+     *
+     * @param capacity The maximum number of events this queue can hold
+     * @param policy   The policy to apply to events offered while this queue is full
+     */
+    public BoundedEventQueue(int capacity, @Nonnull OverflowPolicy policy) {
+        this(capacity, policy, Object::getClass);
+    }
+
+    /**
+     * Creates a new bounded event queue.
+     *
+     * @param capacity      The maximum number of events this queue can hold
+     * @param policy        The policy to apply to events offered while this queue is full
+     * @param coalescingKey The function to extract the key of an event with when coalescing events
+     */
+    public BoundedEventQueue(
+            int capacity,
+            @Nonnull OverflowPolicy policy,
+            @Nonnull Function<? super Handleable, ?> coalescingKey
+    ) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A bounded event queue cannot have a capacity of less than 1.");
+        }
+
+        this.elements = new Handleable[capacity];
+        this.policy = Objects.requireNonNull(policy);
+        this.coalescingKey = Objects.requireNonNull(coalescingKey);
+        this.lock = new ReentrantLock();
+        this.notFull = lock.newCondition();
+        this.consumers = Collections.newSetFromMap(new WeakHashMap<>());
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The ring buffer of events.
+     */
+    @Nonnull
+    private final Handleable[] elements;
+
+    /**
+     * The policy to apply to events offered while this queue is full.
+     */
+    @Nonnull
+    private final OverflowPolicy policy;
+
+    /**
+     * The function to extract the key of an event with when coalescing events.
+     */
+    @Nonnull
+    private final Function<? super Handleable, ?> coalescingKey;
+
+    /**
+     * The lock guarding the ring buffer.
+     */
+    @Nonnull
+    private final ReentrantLock lock;
+
+    /**
+     * The condition which is signalled when an event is removed from this queue.
+     */
+    @Nonnull
+    private final Condition notFull;
+
+    /**
+     * The threads which have polled from this queue. Guarded by the lock.
+     */
+    @Nonnull
+    private final Set<Thread> consumers;
+
+    /**
+     * The thread which most recently polled from this queue. Guarded by the lock.
+     */
+    @Nullable
+    private Thread consumer = null;
+
+    /**
+     * The index of the first event of the ring buffer.
+     */
+    private int head = 0;
+
+    /**
+     * The number of events in the ring buffer.
+     */
+    private int count = 0;
+
+    /**
+     * The number of accepted events which were discarded or replaced by the overflow policy. Guarded by the lock.
+     */
+    private long superseded = 0;
+
+    //
+    // Getters
+    //
+
+    /**
+     * Returns the maximum number of events this queue can hold.
+     *
+     * @return The capacity of this queue
+     */
+    public int getCapacity() {
+        return elements.length;
+    }
+
+    /**
+     * Returns the policy this queue applies to events offered while it is full.
+     *
+     * @return The overflow policy of this queue
+     */
+    @Nonnull
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    //
+    // Methods
+    //
+
+    /**
+     * {@inheritDoc}
+     * If this queue is full, the event is handled according to the overflow policy.
+     *
+     * @param event The event to offer
+     * @return {@inheritDoc}
+     * @throws EventQueueOverflowException When this queue is full and the policy is {@link OverflowPolicy#REJECT}
+     */
+    @Override
+    public boolean offer(@Nonnull Handleable event) {
+        return insert(event, false, true, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the policy is {@link OverflowPolicy#REJECT}, every event is offered before the exception is thrown.
+     *
+     * @param events The collection of events to offer
+     * @return {@inheritDoc}
+     * @throws EventQueueOverflowException When at least one event was rejected by this queue
+     */
+    @Override
+    public int offerAll(@Nonnull Collection<? extends Handleable> events) {
+        int accepted = 0;
+
+        for (final Handleable event : events) {
+            if (insert(event, false, true, false)) accepted++;
+        }
+
+        if (accepted < events.size() && policy == OverflowPolicy.REJECT) throw overflow();
+        return accepted;
+    }
+
+    /**
+     * {@inheritDoc}
+     * If this queue is full, the event is handled according to the overflow policy.
+     *
+     * @param event The event to offer
+     * @return {@inheritDoc}
+     * @throws EventQueueOverflowException When this queue is full and the policy is {@link OverflowPolicy#REJECT}
+     */
+    @Override
+    public boolean offerFirst(@Nonnull Handleable event) {
+        return insert(event, true, true, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * If this queue is full, the event is only accepted if the overflow policy
+     * discards or replaces an event which is already queued.
+     *
+     * @param event The event to offer
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean tryOffer(@Nonnull Handleable event) {
+        return insert(event, false, false, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    public Handleable poll() {
+        lock.lock();
+        try {
+            // Only consult the set of consumers when the consuming thread changes
+            final Thread current = Thread.currentThread();
+
+            if (current != consumer) {
+                consumer = current;
+                consumers.add(current);
+            }
+
+            return count == 0 ? null : removeFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * These are the events discarded by {@link OverflowPolicy#DROP_OLDEST}, and the events
+     * replaced by {@link OverflowPolicy#COALESCE}.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public long getSuperseded() {
+        lock.lock();
+        try {
+            return superseded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Inserts an event into this queue, applying the overflow policy if this queue is full.
+     *
+     * @param event The event to insert
+     * @param first Whether to insert the event at the head of this queue
+     * @param block Whether the offering thread may be blocked while this queue is full
+     * @param raise Whether to throw an exception if the event is rejected
+     * @return {@code true} if the event was accepted by this queue
+     */
+    private boolean insert(@Nonnull Handleable event, boolean first, boolean block, boolean raise) {
+        Objects.requireNonNull(event);
+
+        final Object key = policy == OverflowPolicy.COALESCE ? coalescingKey.apply(EventProcessor.unwrap(event)) : null;
+
+        Handleable discarded = null;
+        boolean accepted = true;
+        boolean replaced = false;
+
+        lock.lock();
+        try {
+            if (count == elements.length) {
+                switch (policy) {
+                    case BLOCK -> accepted = block && !isConsumer() && awaitSpace();
+                    case DROP_NEWEST, REJECT -> accepted = false;
+                    case DROP_OLDEST -> discarded = removeFirst();
+                    case COALESCE -> {
+                        final int index = lastIndexOf(key);
+
+                        if (index < 0) {
+                            accepted = false;
+                            break;
+                        }
+
+                        // Replace the queued event in place, preserving its position
+                        discarded = elements[index];
+                        elements[index] = event;
+                        replaced = true;
+                    }
+                }
+            }
+
+            if (accepted && !replaced) {
+                if (first) {
+                    head = (head + elements.length - 1) % elements.length;
+                    elements[head] = event;
+                } else {
+                    elements[(head + count) % elements.length] = event;
+                }
+
+                count++;
+            }
+
+            if (accepted && discarded != null) superseded++;
+        } finally {
+            lock.unlock();
+        }
+
+        // Release discarded events outside the lock, as releasing may recycle the event
+        if (discarded != null) release(discarded);
+        if (accepted) return true;
+
+        release(event);
+        if (raise && policy == OverflowPolicy.REJECT) throw overflow();
+        return false;
+    }
+
+    /**
+     * Removes the first event of the ring buffer. This queue must be locked and non-empty.
+     *
+     * @return The removed event
+     */
+    @Nonnull
+    private Handleable removeFirst() {
+        final Handleable event = elements[head];
+
+        elements[head] = null;
+        head = (head + 1) % elements.length;
+        count--;
+
+        notFull.signal();
+        return event;
+    }
+
+    /**
+     * Checks if the calling thread is a consumer of this queue. This queue must be locked.
+     *
+     * @return {@code true} if the calling thread has polled from this queue
+     */
+    private boolean isConsumer() {
+        final Thread current = Thread.currentThread();
+        return current == consumer || consumers.contains(current);
+    }
+
+    /**
+     * Waits until this queue is no longer full. This queue must be locked.
+     *
+     * @return {@code false} if the offering thread was interrupted while waiting
+     */
+    private boolean awaitSpace() {
+        try {
+            while (count == elements.length) notFull.await();
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the index of the most recently queued event with the provided coalescing key.
+     * This queue must be locked.
+     *
+     * @param key The coalescing key to search for
+     * @return The index of the event in the ring buffer, {@code -1} if no such event is queued
+     */
+    private int lastIndexOf(@Nullable Object key) {
+        for (int i = count - 1; i >= 0; i--) {
+            final int index = (head + i) % elements.length;
+            if (Objects.equals(key, coalescingKey.apply(EventProcessor.unwrap(elements[index])))) return index;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Creates the exception thrown when an event is rejected by this queue.
+     *
+     * @return The exception to throw
+     */
+    @Nonnull
+    private EventQueueOverflowException overflow() {
+        return new EventQueueOverflowException(
+                "The event queue has reached its capacity of " + elements.length + " events."
+        );
+    }
+
+    /**
+     * Releases a reference to an event if it is pooled. Envelopes are discarded instead.
+     *
+     * @param event The event of which to release
+     */
+    private static void release(@Nonnull Handleable event) {
+        if (event instanceof Envelope envelope) envelope.discard();
+        else if (event instanceof PooledEvent pooled) pooled.release();
+    }
+}
@@ -0,0 +1,26 @@
+package civitas.celestis.event.lifecycle;
+
+/**
+ * An idle strategy which continuously spins, occupying a whole core while idle.
+ * This provides the lowest possible latency, and should only be used when a core
+ * can be dedicated to the consuming thread.
+ *
+ * @see IdleStrategy
+ */
+public class BusySpinIdleStrategy implements IdleStrategy {
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void idle() {
+        Thread.onSpinWait();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        // Nothing to do here
+    }
+}
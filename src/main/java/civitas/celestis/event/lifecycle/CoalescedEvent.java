@@ -0,0 +1,218 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Coalescable;
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.PooledEvent;
+import jakarta.annotation.Nonnull;
+
+import java.util.Map;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+
+/**
+ * An envelope which occupies the position of a coalescing key in a {@link CoalescingEventQueue}.
+ * Newer events of the same key are merged into the envelope while it is queued. Once the envelope
+ * is polled or discarded, it is detached from the index of its queue, after which newer events of
+ * its key are queued in a new envelope.
+ * <p>
+ * Envelopes of debounced queues are also {@link Delayed}, and become due once no event has been
+ * merged into them for the debounce window. As the ordering of a delay queue must not change while
+ * an envelope is queued, merges only postpone the deadline of an envelope, and the envelope is
+ * rescheduled to its postponed deadline by the consumer once its scheduled deadline has elapsed.
+ * </p>
+ *
+ * @see CoalescingEventQueue
+ * @see Envelope
+ */
+final class CoalescedEvent implements Envelope, Delayed {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new envelope.
+     *
+     * @param index    The index of the queue this envelope is queued to
+     * @param key      The coalescing key of this envelope
+     * @param event    The first event of this envelope
+     * @param window   The debounce window of the queue in nanoseconds, {@code 0} if debouncing is disabled
+     */
+    CoalescedEvent(
+            @Nonnull Map<Object, CoalescedEvent> index,
+            @Nonnull Object key,
+            @Nonnull Coalescable event,
+            long window
+    ) {
+        this.index = index;
+        this.key = key;
+        this.event = event;
+        this.window = window;
+        this.deadline = window > 0 ? System.nanoTime() + window : 0;
+        this.scheduled = deadline;
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The index of the queue this envelope is queued to.
+     */
+    @Nonnull
+    private final Map<Object, CoalescedEvent> index;
+
+    /**
+     * The coalescing key of this envelope.
+     */
+    @Nonnull
+    private final Object key;
+
+    /**
+     * The event this envelope currently carries.
+     */
+    @Nonnull
+    private volatile Coalescable event;
+
+    /**
+     * The debounce window of the queue in nanoseconds, {@code 0} if debouncing is disabled.
+     */
+    private final long window;
+
+    /**
+     * The time at which this envelope becomes due, in nanoseconds. Postponed by every merge.
+     */
+    private volatile long deadline;
+
+    /**
+     * The deadline this envelope is ordered by in the delay queue, in nanoseconds.
+     * Only changed by the consumer while this envelope is not queued.
+     */
+    private long scheduled;
+
+    /**
+     * Whether this envelope has been detached from its queue. Guarded by this envelope.
+     */
+    private boolean detached = false;
+
+    //
+    // Getters
+    //
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public Coalescable getEvent() {
+        return event;
+    }
+
+    //
+    // Coalescing
+    //
+
+    /**
+     * Merges a newer event into this envelope. Events which are superseded by the merge
+     * are released if they are pooled.
+     *
+     * @param offered The newer event to merge
+     * @param merger  The function to merge the queued event and the newer event with
+     * @return {@code false} if this envelope has already been detached from its queue
+     */
+    synchronized boolean merge(@Nonnull Coalescable offered, @Nonnull BinaryOperator<Coalescable> merger) {
+        if (detached) return false;
+
+        final Coalescable queued = event;
+        final Coalescable merged = merger.apply(queued, offered);
+
+        event = merged;
+        if (window > 0) deadline = System.nanoTime() + window;
+
+        if (merged != queued) release(queued);
+        if (merged != offered) release(offered);
+        return true;
+    }
+
+    /**
+     * Reschedules this envelope to its current deadline if a merge has postponed it
+     * past the deadline it is scheduled at. Must only be called by the consumer while
+     * this envelope is not in the delay queue.
+     *
+     * @param now The current time in nanoseconds
+     * @return {@code true} if this envelope was rescheduled, and must be queued again
+     */
+    boolean reschedule(long now) {
+        final long current = deadline;
+        if (current == scheduled || current - now <= 0) return false;
+
+        scheduled = current;
+        return true;
+    }
+
+    /**
+     * Detaches this envelope from its queue. No events are merged into this envelope afterward.
+     *
+     * @return {@code true} if this envelope was detached by this call
+     */
+    boolean detach() {
+        synchronized (this) {
+            if (detached) return false;
+            detached = true;
+        }
+
+        index.remove(key, this);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * This detaches this envelope from its queue, then releases its event if it is pooled.
+     */
+    @Override
+    public void discard() {
+        if (detach()) release(event);
+    }
+
+    //
+    // Delayed
+    //
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param unit {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public long getDelay(@Nonnull TimeUnit unit) {
+        return unit.convert(scheduled - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param other {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int compareTo(@Nonnull Delayed other) {
+        if (other instanceof CoalescedEvent envelope) return Long.compare(scheduled, envelope.scheduled);
+        return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Releases a reference to an event if it is pooled.
+     *
+     * @param event The event of which to release
+     */
+    private static void release(@Nonnull Handleable event) {
+        if (event instanceof PooledEvent pooled) pooled.release();
+    }
+}
@@ -0,0 +1,368 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Coalescable;
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.metrics.LaneSnapshot;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BinaryOperator;
+
+/**
+ * An event queue which coalesces {@link Coalescable} events by their coalescing key. While an
+ * event of a key is queued, a newer event of the same key does not occupy a new position in the
+ * queue, but is merged into the queued event by the merge function of this queue. The default
+ * merge function replaces the queued event with the newer event in place. Events which are not
+ * coalescable, or whose key is {@code null}, are queued as usual.
+ * <p>
+ * Events are queued to an underlying event queue, which determines their order, lanes and
+ * capacity. If a debounce window is configured, coalescable events are instead held until no
+ * newer event of their key has been offered for the duration of the window, and are polled before
+ * any other event once they are due. A key which is offered continuously at intervals shorter than
+ * the window is therefore held until its events pause.
+ * </p>
+ * <p>
+ * Debounced events are not offered to the underlying queue, and no producer signals the consumer
+ * when they become due. Instead, {@link #nanosUntilDue()} reports the time until the next held
+ * event is due, which an {@link EventThread} uses to bound how long its idle strategy suspends it.
+ * </p>
+ * <p>
+ * Events which are superseded by a merge are released if they are
+ * {@link civitas.celestis.event.PooledEvent pooled}.
+ * </p>
+ *
+ * @see Coalescable
+ * @see EventQueue
+ */
+public class CoalescingEventQueue implements EventQueue {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new coalescing event queue which replaces queued events with newer events.
+     */
+    public CoalescingEventQueue() {
+        this(new MpscEventQueue());
+    }
+
+    /**
+     * Creates a new coalescing event queue which replaces queued events with newer events.
+     *
+     * @param queue The underlying queue to queue events to
+     */
+    public CoalescingEventQueue(@Nonnull EventQueue queue) {
+        this(queue, (queued, offered) -> offered);
+    }
+
+    /**
+     * Creates a new coalescing event queue.
+     *
+     * @param queue  The underlying queue to queue events to
+     * @param merger The function to merge a queued event and a newer event of the same key with
+     */
+    public CoalescingEventQueue(@Nonnull EventQueue queue, @Nonnull BinaryOperator<Coalescable> merger) {
+        this(queue, merger, Duration.ZERO);
+    }
+
+    /**
+     * Creates a new coalescing event queue.
+     *
+     * @param queue    The underlying queue to queue events to
+     * @param merger   The function to merge a queued event and a newer event of the same key with
+     * @param debounce The duration without newer events of the same key to hold coalescable events for,
+     *                 or {@link Duration#ZERO} to disable debouncing
+     */
+    public CoalescingEventQueue(
+            @Nonnull EventQueue queue,
+            @Nonnull BinaryOperator<Coalescable> merger,
+            @Nonnull Duration debounce
+    ) {
+        if (debounce.isNegative()) {
+            throw new IllegalArgumentException("A debounce window cannot be negative.");
+        }
+
+        this.queue = Objects.requireNonNull(queue);
+        this.merger = Objects.requireNonNull(merger);
+        this.debounce = debounce.toNanos();
+        this.index = new ConcurrentHashMap<>();
+        this.delayed = new DelayQueue<>();
+        this.merged = new LongAdder();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The underlying queue to queue events to.
+     */
+    @Nonnull
+    private final EventQueue queue;
+
+    /**
+     * The function to merge a queued event and a newer event of the same key with.
+     */
+    @Nonnull
+    private final BinaryOperator<Coalescable> merger;
+
+    /**
+     * The duration to hold coalescable events for in nanoseconds, {@code 0} if debouncing is disabled.
+     */
+    private final long debounce;
+
+    /**
+     * The index of queued envelopes by their coalescing key.
+     */
+    @Nonnull
+    private final ConcurrentHashMap<Object, CoalescedEvent> index;
+
+    /**
+     * The envelopes which are held until their debounce window has elapsed, ordered by their scheduled deadline.
+     */
+    @Nonnull
+    private final DelayQueue<CoalescedEvent> delayed;
+
+    /**
+     * The number of accepted events which were merged into a queued envelope.
+     */
+    @Nonnull
+    private final LongAdder merged;
+
+    //
+    // Getters
+    //
+
+    /**
+     * Returns the debounce window of this queue.
+     *
+     * @return The duration without newer events of the same key coalescable events are held for
+     */
+    @Nonnull
+    public Duration getDebounce() {
+        return Duration.ofNanos(debounce);
+    }
+
+    //
+    // Methods
+    //
+
+    /**
+     * {@inheritDoc}
+     * If an event of the same coalescing key is queued, the event is merged into it instead.
+     *
+     * @param event The event to offer
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean offer(@Nonnull Handleable event) {
+        final Handleable element = coalesce(event);
+        if (element == null || hold(element)) return true;
+
+        return queue.offer(element) || discard(element);
+    }
+
+    /**
+     * {@inheritDoc}
+     * If an event of the same coalescing key is queued, the event is merged into it instead.
+     *
+     * @param event The event to offer
+     * @param lane  {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean offer(@Nonnull Handleable event, int lane) {
+        final Handleable element = coalesce(event);
+        if (element == null || hold(element)) return true;
+
+        return queue.offer(element, lane) || discard(element);
+    }
+
+    /**
+     * {@inheritDoc}
+     * If an event of the same coalescing key is queued, the event is merged into it instead.
+     *
+     * @param event The event to offer
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean tryOffer(@Nonnull Handleable event) {
+        final Handleable element = coalesce(event);
+        if (element == null || hold(element)) return true;
+
+        return queue.tryOffer(element) || discard(element);
+    }
+
+    /**
+     * {@inheritDoc}
+     * If an event of the same coalescing key is queued, the event is merged into it instead,
+     * and retains the position of the queued event.
+     *
+     * @param event The event to offer
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean offerFirst(@Nonnull Handleable event) {
+        final Handleable element = coalesce(event);
+        if (element == null || hold(element)) return true;
+
+        return queue.offerFirst(element) || discard(element);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Debounced events which are due are polled before any other event.
+     *
+     * @return {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    public Handleable poll() {
+        while (true) {
+            final Handleable element = debounce > 0 ? pollDue() : queue.poll();
+            if (!(element instanceof CoalescedEvent envelope)) return element;
+
+            // Skip envelopes which have been discarded while queued
+            if (envelope.detach()) return envelope.getEvent();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * This includes debounced events which are not yet due.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return queue.size() + delayed.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * This includes the events merged into a queued event of the same key, and the events
+     * superseded by the underlying queue.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public long getSuperseded() {
+        return merged.sum() + queue.getSuperseded();
+    }
+
+    /**
+     * {@inheritDoc}
+     * This is the lesser of the delay of the next debounced event and that of the underlying queue.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public long nanosUntilDue() {
+        final long underlying = queue.nanosUntilDue();
+        if (debounce == 0) return underlying;
+
+        final CoalescedEvent next = delayed.peek();
+        if (next == null) return underlying;
+
+        return Math.min(Math.max(next.getDelay(TimeUnit.NANOSECONDS), 0), underlying);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public List<LaneSnapshot> getLaneMetrics() {
+        return queue.getLaneMetrics();
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Merges an event into the queued envelope of its coalescing key if there is one.
+     *
+     * @param event The event to coalesce
+     * @return The event itself if it cannot be coalesced, a new envelope if it must be queued,
+     * or {@code null} if it was merged into a queued envelope
+     */
+    @Nullable
+    private Handleable coalesce(@Nonnull Handleable event) {
+        if (!(event instanceof Coalescable coalescable)) return event;
+
+        final Object key = coalescable.getCoalescingKey();
+        if (key == null) return event;
+
+        while (true) {
+            final CoalescedEvent queued = index.get(key);
+
+            // Retry if the queued envelope was polled concurrently
+            if (queued != null) {
+                if (queued.merge(coalescable, merger)) {
+                    merged.increment();
+                    return null;
+                }
+
+                continue;
+            }
+
+            final CoalescedEvent envelope = new CoalescedEvent(index, key, coalescable, debounce);
+
+            if (index.putIfAbsent(key, envelope) == null) return envelope;
+        }
+    }
+
+    /**
+     * Holds a new envelope until its debounce window has elapsed, if debouncing is enabled.
+     * Held envelopes are not offered to the underlying queue.
+     *
+     * @param element The element to hold
+     * @return {@code true} if the element is held by this queue
+     */
+    private boolean hold(@Nonnull Handleable element) {
+        if (debounce == 0 || !(element instanceof CoalescedEvent envelope)) return false;
+
+        delayed.add(envelope);
+        return true;
+    }
+
+    /**
+     * Discards an envelope which was not accepted by the underlying queue.
+     *
+     * @param element The element which was not accepted
+     * @return {@code false}
+     */
+    private static boolean discard(@Nonnull Handleable element) {
+        if (element instanceof Envelope envelope) envelope.discard();
+        return false;
+    }
+
+    /**
+     * Polls the first debounced envelope which is due, or the first event of the underlying queue.
+     * Envelopes whose deadline has been postponed by a merge are rescheduled instead.
+     *
+     * @return The polled element, {@code null} if there is none
+     */
+    @Nullable
+    private Handleable pollDue() {
+        final long now = System.nanoTime();
+
+        CoalescedEvent due;
+        while ((due = delayed.poll()) != null) {
+            if (!due.reschedule(now)) return due;
+            delayed.add(due);
+        }
+
+        return queue.poll();
+    }
+}
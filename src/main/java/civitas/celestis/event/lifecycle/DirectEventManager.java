@@ -0,0 +1,445 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.Listener;
+import civitas.celestis.event.PooledEvent;
+import civitas.celestis.event.metrics.EventSnapshot;
+import civitas.celestis.exception.event.EventDepthException;
+import jakarta.annotation.Nonnull;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An event manager which handles events synchronously on the thread which called them.
+ * Handlers are invoked in order of execution priority before the call returns, using the same
+ * {@link HandlerRegistry} and {@link EventProcessor} as the queued event managers. This removes
+ * the latency of enqueueing events for synchronous pipelines, at the cost of the calling thread
+ * performing the work of every handler.
+ * <p>
+ * Handlers may call events to this event manager, in which case the nested events are handled
+ * immediately, before the remaining handlers of the outer event. The nesting of calls is tracked
+ * per thread, and calls beyond the depth limit of this event manager are refused with an
+ * {@link EventDepthException}, which protects the calling thread from unbounded recursion between
+ * handlers. When thrown from within a handler, the exception is reported as a handler failure,
+ * and the remaining handlers of the outer event are still invoked.
+ * </p>
+ * <p>
+ * As there is no queue, prioritized calls and lanes have no effect, and the queue depth
+ * of this event manager is always zero.
+ * </p>
+ *
+ * @see EventManager
+ * @see EventProcessor
+ */
+public class DirectEventManager implements EventManager {
+    //
+    // Constants
+    //
+
+    /**
+     * The default maximum number of nested calls per thread.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 16;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new direct event manager.
+     */
+    public DirectEventManager() {
+        this(DEFAULT_MAX_DEPTH, System.out);
+    }
+
+    /**
+     * Creates a new direct event manager.
+     *
+     * @param printStream The print stream to print handler exceptions to
+     */
+    public DirectEventManager(@Nonnull PrintStream printStream) {
+        this(DEFAULT_MAX_DEPTH, printStream);
+    }
+
+    /**
+     * Creates a new direct event manager.
+     *
+     * @param maxDepth    The maximum number of nested calls per thread
+     * @param printStream The print stream to print handler exceptions to
+     */
+    public DirectEventManager(int maxDepth, @Nonnull PrintStream printStream) {
+        this(maxDepth, new EventProcessor(new HandlerRegistry(), printStream));
+    }
+
+    /**
+     * Creates a new direct event manager.
+     *
+     * @param maxDepth  The maximum number of nested calls per thread
+     * @param processor The processor to handle events with
+     */
+    protected DirectEventManager(int maxDepth, @Nonnull EventProcessor processor) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("A direct event manager cannot have a depth limit of less than 1.");
+        }
+
+        this.maxDepth = maxDepth;
+        this.processor = processor;
+        this.registry = processor.getRegistry();
+        this.depth = ThreadLocal.withInitial(Depth::new);
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The maximum number of nested calls per thread.
+     */
+    private final int maxDepth;
+
+    /**
+     * The processor to handle events with.
+     */
+    @Nonnull
+    private final EventProcessor processor;
+
+    /**
+     * The registry of handlers.
+     */
+    @Nonnull
+    private final HandlerRegistry registry;
+
+    /**
+     * The current nesting of calls of each thread.
+     */
+    @Nonnull
+    private final ThreadLocal<Depth> depth;
+
+    //
+    // Getters
+    //
+
+    /**
+     * Returns the maximum number of nested calls per thread.
+     *
+     * @return The depth limit of this event manager
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    //
+    // Methods
+    //
+
+    /**
+     * {@inheritDoc}
+     * The event is handled before this method returns.
+     *
+     * @param event The event of which to handle
+     * @param <E>   {@inheritDoc}
+     * @throws EventDepthException When the depth limit of this event manager has been reached
+     */
+    @Override
+    public <E extends Handleable> void call(@Nonnull E event) {
+        final Depth current = enter(event);
+
+        try {
+            dispatch(event);
+        } finally {
+            current.value--;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The future is completed before this method returns, unless the event has
+     * asynchronous handlers which have not yet finished.
+     *
+     * @param event The event of which to handle
+     * @param <E>   {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws EventDepthException When the depth limit of this event manager has been reached
+     */
+    @Nonnull
+    @Override
+    public <E extends Handleable> CompletableFuture<E> callAsync(@Nonnull E event) {
+        final Depth current = enter(event);
+
+        try {
+            final AwaitedEvent<E> awaited = new AwaitedEvent<>(event);
+            dispatch(awaited);
+            return awaited.getFuture();
+        } finally {
+            current.value--;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The event is only refused if the depth limit of this event manager has been reached.
+     *
+     * @param event The event of which to handle
+     * @param <E>   {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public <E extends Handleable> boolean tryCall(@Nonnull E event) {
+        final Depth current = depth.get();
+
+        if (current.value >= maxDepth) {
+            release(event);
+            return false;
+        }
+
+        current.value++;
+
+        try {
+            dispatch(event);
+            return true;
+        } finally {
+            current.value--;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The events are handled as a single batch before this method returns.
+     *
+     * @param events The collection of events of which to handle
+     * @throws EventDepthException When the depth limit of this event manager has been reached
+     */
+    @Override
+    public void callAll(@Nonnull Collection<? extends Handleable> events) {
+        if (events.isEmpty()) return;
+
+        final List<? extends Handleable> batch = events instanceof List<? extends Handleable> list
+                ? list
+                : new ArrayList<>(events);
+
+        final Depth current = enter(batch);
+
+        try {
+            processor.getMetrics().enqueued(batch.size());
+            processor.getMetrics().dequeued(batch.size());
+            processor.processAll(batch);
+        } finally {
+            current.value--;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * As events are handled immediately, this is equivalent to {@link #call(Handleable)}.
+     *
+     * @param event The event of which to prioritize
+     * @param <E>   {@inheritDoc}
+     * @throws EventDepthException When the depth limit of this event manager has been reached
+     */
+    @Override
+    public <E extends Handleable> void priorityCall(@Nonnull E event) {
+        call(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to register to this event manager
+     */
+    @Override
+    public void register(@Nonnull Listener listener) {
+        registry.register(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to register to this event manager
+     * @param key      {@inheritDoc}
+     */
+    @Override
+    public void register(@Nonnull Listener listener, @Nonnull Object key) {
+        registry.register(listener, key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listeners The iterable object containing the listeners to register
+     */
+    @Override
+    public void register(@Nonnull Iterable<? extends Listener> listeners) {
+        registry.register(listeners);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to unregister from this event manager
+     */
+    @Override
+    public void unregister(@Nonnull Listener listener) {
+        registry.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to unregister from this event manager
+     * @param key      {@inheritDoc}
+     */
+    @Override
+    public void unregister(@Nonnull Listener listener, @Nonnull Object key) {
+        registry.unregister(listener, key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listeners The iterable object containing the listeners to unregister
+     */
+    @Override
+    public void unregister(@Nonnull Iterable<? extends Listener> listeners) {
+        registry.unregister(listeners);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public EventSnapshot getMetrics() {
+        return processor.snapshot(0, 0, List.of());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initialize() {
+        // Nothing to do here
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        // Nothing to do here
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void interrupt() {
+        // Nothing to do here
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void terminate() {
+        // Nothing to do here
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Handles a single event on the calling thread. The event is processed as a batch of one,
+     * so that batch handlers receive it, as they would from the queued event managers.
+     *
+     * @param event The event of which to handle
+     */
+    private void dispatch(@Nonnull Handleable event) {
+        processor.getMetrics().enqueued(1);
+        processor.getMetrics().dequeued(1);
+        processor.processAll(List.of(event));
+    }
+
+    /**
+     * Increments the nesting of calls of the calling thread. If the depth limit has been
+     * reached, the refused event is released if it is pooled.
+     *
+     * @param event The event which is being called
+     * @return The depth of the calling thread
+     * @throws EventDepthException When the depth limit of this event manager has been reached
+     */
+    @Nonnull
+    private Depth enter(@Nonnull Handleable event) {
+        final Depth current = depth.get();
+
+        if (current.value >= maxDepth) {
+            release(event);
+            throw exceeded();
+        }
+
+        current.value++;
+        return current;
+    }
+
+    /**
+     * Increments the nesting of calls of the calling thread. If the depth limit has been
+     * reached, the refused events are released if they are pooled.
+     *
+     * @param events The events which are being called
+     * @return The depth of the calling thread
+     * @throws EventDepthException When the depth limit of this event manager has been reached
+     */
+    @Nonnull
+    private Depth enter(@Nonnull List<? extends Handleable> events) {
+        final Depth current = depth.get();
+
+        if (current.value >= maxDepth) {
+            events.forEach(DirectEventManager::release);
+            throw exceeded();
+        }
+
+        current.value++;
+        return current;
+    }
+
+    /**
+     * Creates the exception thrown when the depth limit of this event manager has been reached.
+     *
+     * @return The exception to throw
+     */
+    @Nonnull
+    private EventDepthException exceeded() {
+        return new EventDepthException(
+                "The nesting of event calls has exceeded the depth limit of " + maxDepth + "."
+        );
+    }
+
+    /**
+     * Releases a reference to an event if it is pooled.
+     *
+     * @param event The event of which to release
+     */
+    private static void release(@Nonnull Handleable event) {
+        if (event instanceof PooledEvent pooled) pooled.release();
+    }
+
+    //
+    // Depth
+    //
+
+    /**
+     * The mutable nesting of calls of a thread.
+     */
+    private static final class Depth {
+        /**
+         * The number of calls the thread is currently nested in.
+         */
+        private int value = 0;
+    }
+}
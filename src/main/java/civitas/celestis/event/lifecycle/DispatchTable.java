@@ -0,0 +1,233 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.HandlerReference;
+import jakarta.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable snapshot of handlers, along with a lazily populated index which maps
+ * concrete event classes to the handlers which accept them. The first time an event of
+ * a certain class is dispatched, the handlers are scanned once, and every handler which
+ * accepts the event class (including handlers of its superclasses and interfaces) is stored
+ * in an array in order of execution priority. Subsequent events of the same class are then
+ * dispatched directly to that array.
+ * <p>
+ * Dispatch tables are published by a {@link HandlerRegistry}. Since the handlers of a table
+ * never change, the index never has to be invalidated; a modification of the registry simply
+ * publishes a new table.
+ * </p>
+ * <p>
+ * {@link HandlerReference#batch() Batch handlers} are indexed separately from regular handlers,
+ * as they are invoked once per drained batch of events instead of once per event.
+ * </p>
+ * <p>
+ * {@link HandlerReference#key() Keyed handlers} are not part of the snapshot. They are grouped by
+ * their key into nested tables, which the registry maintains in a concurrent hash index shared by
+ * every snapshot, and replaces one key at a time. The keyed handlers of an event are looked up by
+ * its key first, which makes the cost of dispatching a {@link civitas.celestis.event.Keyed Keyed}
+ * event, as well as the cost of subscribing to a key, independent of the number of keys which
+ * have subscriptions. As the index is shared, keyed subscriptions take effect immediately, even
+ * for a snapshot which was retrieved beforehand.
+ * </p>
+ *
+ * @see HandlerRegistry
+ * @see HandlerReference
+ */
+public final class DispatchTable {
+    //
+    // Constants
+    //
+
+    /**
+     * The empty array of handlers.
+     */
+    private static final HandlerReference[] EMPTY = new HandlerReference[0];
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new dispatch table. The array is not copied, and must not be modified.
+     *
+     * @param handlers The array of handlers to index, sorted by execution priority
+     * @param keyed    The index of nested tables of keyed handlers, or an empty map if this is a nested table
+     */
+    DispatchTable(@Nonnull HandlerReference[] handlers, @Nonnull Map<Object, DispatchTable> keyed) {
+        this.handlers = handlers;
+        this.keyed = keyed;
+        this.cache = new ConcurrentHashMap<>();
+        this.batchCache = new ConcurrentHashMap<>();
+
+        boolean batchHandlers = false;
+        for (final HandlerReference handler : handlers) batchHandlers |= handler.batch();
+        this.batchHandlers = batchHandlers;
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The array of handlers, sorted by execution priority.
+     */
+    @Nonnull
+    private final HandlerReference[] handlers;
+
+    /**
+     * The nested tables of keyed handlers, mapped by their key. Owned by the registry.
+     */
+    @Nonnull
+    private final Map<Object, DispatchTable> keyed;
+
+    /**
+     * The map of cached handler arrays.
+     */
+    @Nonnull
+    private final Map<Class<?>, HandlerReference[]> cache;
+
+    /**
+     * The map of cached batch handler arrays.
+     */
+    @Nonnull
+    private final Map<Class<?>, HandlerReference[]> batchCache;
+
+    /**
+     * Whether this table contains at least one batch handler.
+     */
+    private final boolean batchHandlers;
+
+    //
+    // Methods
+    //
+
+    /**
+     * Returns every handler of this table, sorted by execution priority. This does not
+     * include keyed handlers, which are stored in nested tables. The returned array must
+     * not be modified.
+     *
+     * @return The array of every handler of this table
+     */
+    @Nonnull
+    public HandlerReference[] handlers() {
+        return handlers;
+    }
+
+    /**
+     * Returns the priority-sorted array of regular handlers which accept events of the
+     * provided class. The returned array must not be modified.
+     *
+     * @param eventType The concrete class of the event
+     * @return The array of handlers which accept the event class
+     */
+    @Nonnull
+    public HandlerReference[] get(@Nonnull Class<? extends Handleable> eventType) {
+        final HandlerReference[] cached = cache.get(eventType);
+        return cached != null ? cached : lookup(cache, eventType, false);
+    }
+
+    /**
+     * Returns the priority-sorted array of batch handlers which accept events of the
+     * provided class. The returned array must not be modified.
+     *
+     * @param eventType The concrete class of the event
+     * @return The array of batch handlers which accept the event class
+     */
+    @Nonnull
+    public HandlerReference[] getBatch(@Nonnull Class<? extends Handleable> eventType) {
+        final HandlerReference[] cached = batchCache.get(eventType);
+        return cached != null ? cached : lookup(batchCache, eventType, true);
+    }
+
+    /**
+     * Returns the priority-sorted array of regular handlers which are scoped to the provided
+     * key, and accept events of the provided class. The returned array must not be modified.
+     *
+     * @param eventType The concrete class of the event
+     * @param key       The key of the event
+     * @return The array of keyed handlers which accept the event
+     */
+    @Nonnull
+    public HandlerReference[] get(@Nonnull Class<? extends Handleable> eventType, @Nonnull Object key) {
+        final DispatchTable table = keyed.get(key);
+        return table != null ? table.get(eventType) : EMPTY;
+    }
+
+    /**
+     * Returns the priority-sorted array of batch handlers which are scoped to the provided
+     * key, and accept events of the provided class. The returned array must not be modified.
+     *
+     * @param eventType The concrete class of the event
+     * @param key       The key of the event
+     * @return The array of keyed batch handlers which accept the event
+     */
+    @Nonnull
+    public HandlerReference[] getBatch(@Nonnull Class<? extends Handleable> eventType, @Nonnull Object key) {
+        final DispatchTable table = keyed.get(key);
+        return table != null ? table.getBatch(eventType) : EMPTY;
+    }
+
+    /**
+     * Returns the nested tables of keyed handlers. The returned collection reflects
+     * subsequent keyed subscriptions, and cannot be modified.
+     *
+     * @return The collection of nested tables of keyed handlers
+     */
+    @Nonnull
+    public Collection<DispatchTable> keyedTables() {
+        return Collections.unmodifiableCollection(keyed.values());
+    }
+
+    /**
+     * Returns whether there is at least one keyed handler in this table.
+     *
+     * @return {@code true} if there is at least one keyed handler
+     */
+    public boolean hasKeyedHandlers() {
+        return !keyed.isEmpty();
+    }
+
+    /**
+     * Returns whether there is at least one batch handler in this table,
+     * not including the nested tables of keyed handlers.
+     *
+     * @return {@code true} if there is at least one batch handler
+     */
+    public boolean hasBatchHandlers() {
+        return batchHandlers;
+    }
+
+    /**
+     * Builds and caches the array of handlers which accept the provided event class.
+     *
+     * @param cache     The cache to store the array to
+     * @param eventType The concrete class of the event
+     * @param batch     Whether to collect batch handlers or regular handlers
+     * @return The array of handlers which accept the event class
+     */
+    @Nonnull
+    private HandlerReference[] lookup(
+            @Nonnull Map<Class<?>, HandlerReference[]> cache,
+            @Nonnull Class<? extends Handleable> eventType,
+            boolean batch
+    ) {
+        final List<HandlerReference> accepted = new ArrayList<>();
+
+        for (final HandlerReference handler : handlers) {
+            if (handler.batch() != batch) continue;
+            if (!handler.eventType().isAssignableFrom(eventType)) continue;
+            accepted.add(handler);
+        }
+
+        final HandlerReference[] result = accepted.toArray(new HandlerReference[0]);
+        final HandlerReference[] previous = cache.putIfAbsent(eventType, result);
+        return previous != null ? previous : result;
+    }
+}
@@ -0,0 +1,66 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Handleable;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.UUID;
+
+/**
+ * An object which carries an event through an event queue together with the state the queue
+ * or event manager requires to track it. Envelopes delegate the properties of {@link Handleable}
+ * to their events, and are unwrapped before any handler is invoked. Envelopes are never exposed
+ * outside of this package.
+ *
+ * @see AwaitedEvent
+ * @see CoalescedEvent
+ */
+interface Envelope extends Handleable {
+    /**
+     * Returns the event this envelope carries.
+     *
+     * @return The event of this envelope
+     */
+    @Nonnull
+    Handleable getEvent();
+
+    /**
+     * Discards this envelope without handling its event. This is called by event queues
+     * in place of releasing the event when the envelope is dropped. Subsequent calls have
+     * no effect.
+     */
+    void discard();
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    default UUID getUniqueId() {
+        return getEvent().getUniqueId();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    default Handleable getCause() {
+        return getEvent().getCause();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    default UUID getCauseId() {
+        return getEvent().getCauseId();
+    }
+}
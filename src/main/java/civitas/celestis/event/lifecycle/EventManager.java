@@ -2,15 +2,20 @@ package civitas.celestis.event.lifecycle;
 
 import civitas.celestis.event.Handleable;
 import civitas.celestis.event.Listener;
+import civitas.celestis.event.metrics.EventSnapshot;
 import civitas.celestis.util.Module;
 import jakarta.annotation.Nonnull;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * An event manager handles the lifecycle of events and event listeners.
  * Events are processed by calling an event by means of {@link #call(Handleable)},
  * and event listeners can be registered and unregistered by their respective methods.
  *
  * @see SyncEventManager
+ * @see PartitionedEventManager
  */
 public interface EventManager extends Module {
     /**
@@ -22,6 +27,56 @@ public interface EventManager extends Module {
      */
     <E extends Handleable> void call(@Nonnull E event);
 
+    /**
+     * Calls an event to this event manager, and returns a future which is completed with the
+     * event once its last handler has finished, including its asynchronous handlers. As the
+     * future is completed with the event itself, the cancellation state of
+     * {@link civitas.celestis.event.Cancellable Cancellable} events can be inspected upon completion.
+     * <p>
+     * The future is completed by the thread which finished the last handler, so dependent
+     * actions which must not run on an event thread should be registered with an asynchronous
+     * method of the future. If the event is discarded before it is handled, (e.g. by the overflow
+     * policy of a bounded event queue) the future is completed exceptionally.
+     * </p>
+     * <p>
+     * If the event is a {@link civitas.celestis.event.PooledEvent PooledEvent}, the future holds a
+     * reference to it, which the caller must release once it has inspected the completed event.
+     * </p>
+     *
+     * @param event The event of which to handle
+     * @param <E>   The type of event to handle
+     * @return A future which is completed with the event once it has been handled
+     */
+    @Nonnull
+    <E extends Handleable> CompletableFuture<E> callAsync(@Nonnull E event);
+
+    /**
+     * Attempts to call an event to this event manager without blocking the calling thread.
+     * If the event manager is unable to accept the event at this time, (e.g. its bounded
+     * event queue is full) the event is discarded, and {@code false} is returned, allowing
+     * the caller to react to backpressure.
+     *
+     * @param event The event of which to handle
+     * @param <E>   The type of event to handle
+     * @return {@code true} if the event was accepted by this event manager
+     */
+    default <E extends Handleable> boolean tryCall(@Nonnull E event) {
+        call(event);
+        return true;
+    }
+
+    /**
+     * Calls multiple events to this event manager at once, instructing it to process
+     * the events as soon as possible, in the iteration order of the collection.
+     * Implementations may enqueue the events in bulk, which is cheaper than
+     * calling {@link #call(Handleable)} once per event.
+     *
+     * @param events The collection of events of which to handle
+     */
+    default void callAll(@Nonnull Collection<? extends Handleable> events) {
+        events.forEach(this::call);
+    }
+
     /**
      * Calls an event to this event manager, instructing it to prioritize this event
      * over all other events currently in the event queue.
@@ -31,6 +86,22 @@ public interface EventManager extends Module {
      */
     <E extends Handleable> void priorityCall(@Nonnull E event);
 
+    /**
+     * Calls an event to a lane of the event queue of this event manager. Lane {@code 0} has
+     * the highest priority, and is the lane {@link #priorityCall(Handleable) prioritized events}
+     * are offered to. Event managers without multiple lanes prioritize events of lane {@code 0},
+     * and treat events of any other lane as regular events.
+     *
+     * @param event The event of which to handle
+     * @param lane  The index of the lane to offer the event to
+     * @param <E>   The type of event to handle
+     * @see MultiLaneEventQueue
+     */
+    default <E extends Handleable> void call(@Nonnull E event, int lane) {
+        if (lane == 0) priorityCall(event);
+        else call(event);
+    }
+
     /**
      * Registers an event listener to this event manager.
      *
@@ -38,6 +109,16 @@ public interface EventManager extends Module {
      */
     void register(@Nonnull Listener listener);
 
+    /**
+     * Registers an event listener to this event manager, scoped to the provided key. The handlers
+     * of the listener only receive {@link civitas.celestis.event.Keyed Keyed} events of an equal key,
+     * and are looked up by the key of the event, instead of being invoked for every event of their type.
+     *
+     * @param listener The event listener to register to this event manager
+     * @param key      The key to scope the handlers of the listener to
+     */
+    void register(@Nonnull Listener listener, @Nonnull Object key);
+
     /**
      * Registers multiple event listeners to this event manager.
      *
@@ -52,10 +133,28 @@ public interface EventManager extends Module {
      */
     void unregister(@Nonnull Listener listener);
 
+    /**
+     * Unregisters the subscription of an event listener to the provided key from this event manager.
+     *
+     * @param listener The event listener to unregister from this event manager
+     * @param key      The key the listener was registered with
+     */
+    void unregister(@Nonnull Listener listener, @Nonnull Object key);
+
     /**
      * Unregisters multiple event listeners from this event manager.
      *
      * @param listeners The iterable object containing the listeners to unregister
      */
     void unregister(@Nonnull Iterable<? extends Listener> listeners);
+
+    /**
+     * Takes a snapshot of the metrics of this event manager, including the depth of
+     * its event queues, the number of enqueued and dequeued events, the metrics of each
+     * lane of its event queues, and the metrics of every registered handler. This can be called from any thread.
+     *
+     * @return The snapshot of the metrics of this event manager
+     */
+    @Nonnull
+    EventSnapshot getMetrics();
 }
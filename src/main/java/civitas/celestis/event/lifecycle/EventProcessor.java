@@ -0,0 +1,603 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Cancellable;
+import civitas.celestis.event.EventHandler;
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.HandlerPriority;
+import civitas.celestis.event.HandlerReference;
+import civitas.celestis.event.Keyed;
+import civitas.celestis.event.PooledEvent;
+import civitas.celestis.event.metrics.EventMetrics;
+import civitas.celestis.event.metrics.EventSnapshot;
+import civitas.celestis.event.metrics.HandlerSnapshot;
+import civitas.celestis.event.metrics.LaneSnapshot;
+import civitas.celestis.exception.event.HandlerException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Processes events by invoking every handler which accepts them in order of execution
+ * priority. The processor itself holds no per-event state, and can therefore be shared
+ * between every thread which processes events from the same handler registry. Handlers
+ * are read from the current snapshot of the registry, which does not require allocation.
+ * <p>
+ * Handlers marked as {@link EventHandler#async() asynchronous} are invoked on a virtual
+ * thread instead of the processing thread. For events which are not {@link Cancellable},
+ * asynchronous handlers are not waited for at all. For cancellable events, every asynchronous
+ * handler of a priority must complete before any handler of a later priority is invoked,
+ * and before the event is considered processed. This ensures that the cancellation state
+ * observed by later handlers is identical to that of a fully synchronous dispatch.
+ * </p>
+ * <p>
+ * Handlers which {@link EventHandler#ignoreCancelled() ignore cancelled events} are not
+ * invoked at all once the event has been cancelled.
+ * </p>
+ * <p>
+ * Batch handlers are not invoked by {@link #process(Handleable)}. They are only invoked
+ * by {@link #processAll(List)}, after every event of the batch has been processed.
+ * </p>
+ * <p>
+ * {@link civitas.celestis.event.Keyed Keyed} events are also dispatched to the handlers which
+ * are scoped to their key, which are looked up by key, and interleaved with the regular
+ * handlers by execution priority.
+ * </p>
+ * <p>
+ * Once an event has been fully processed, the processor releases its reference to the
+ * event if it is a {@link PooledEvent}, allowing it to be recycled.
+ * </p>
+ * <p>
+ * Every invocation of a handler is timed, and recorded to the {@link HandlerReference#metrics()
+ * metrics of the handler}. The processor also holds the {@link EventMetrics} of the threads
+ * which share it, from which a {@link #snapshot(int, List) snapshot} can be taken from any thread.
+ * </p>
+ *
+ * @see EventThread
+ * @see HandlerRegistry
+ */
+public class EventProcessor {
+    //
+    // Constants
+    //
+
+    /**
+     * The empty array of handlers.
+     */
+    private static final HandlerReference[] NO_HANDLERS = new HandlerReference[0];
+
+    /**
+     * The comparator which sorts handlers by their execution priority.
+     */
+    private static final Comparator<HandlerReference> PRIORITY_ORDER = Comparator.comparing(HandlerReference::priority);
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new event processor which runs asynchronous handlers on virtual threads.
+     *
+     * @param registry    The registry to look up handlers from
+     * @param printStream The print stream to print error messages to
+     */
+    public EventProcessor(@Nonnull HandlerRegistry registry, @Nonnull PrintStream printStream) {
+        this(registry, Thread::startVirtualThread, printStream);
+    }
+
+    /**
+     * Creates a new event processor.
+     *
+     * @param registry      The registry to look up handlers from
+     * @param asyncExecutor The executor to run asynchronous handlers with
+     * @param printStream   The print stream to print error messages to
+     */
+    public EventProcessor(
+            @Nonnull HandlerRegistry registry,
+            @Nonnull Executor asyncExecutor,
+            @Nonnull PrintStream printStream
+    ) {
+        this.registry = registry;
+        this.asyncExecutor = asyncExecutor;
+        this.printStream = printStream;
+        this.metrics = new EventMetrics();
+        this.scratch = ThreadLocal.withInitial(BatchGroups::new);
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The registry to look up handlers from.
+     */
+    @Nonnull
+    private final HandlerRegistry registry;
+
+    /**
+     * The executor to run asynchronous handlers with.
+     */
+    @Nonnull
+    private final Executor asyncExecutor;
+
+    /**
+     * The print stream to print error messages to.
+     */
+    @Nonnull
+    private final PrintStream printStream;
+
+    /**
+     * The live metrics of the threads which share this processor.
+     */
+    @Nonnull
+    private final EventMetrics metrics;
+
+    /**
+     * The reusable structures each processing thread groups events by their batch handlers with.
+     */
+    @Nonnull
+    private final ThreadLocal<BatchGroups> scratch;
+
+    //
+    // Getters
+    //
+
+    /**
+     * Returns the registry this processor looks up handlers from.
+     *
+     * @return The handler registry of this processor
+     */
+    @Nonnull
+    public HandlerRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Returns the live metrics of the threads which share this processor.
+     *
+     * @return The event metrics of this processor
+     */
+    @Nonnull
+    public EventMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Takes a snapshot of the metrics of this processor, and of every currently registered handler.
+     * Superseded events are excluded from the number of enqueued events, as they are never dequeued.
+     *
+     * @param queueDepth The number of events currently pending in the event queues
+     * @param superseded The number of events superseded by the event queues
+     * @param lanes      The snapshots of the lanes of the event queues
+     * @return The snapshot of the metrics
+     * @see EventQueue#getSuperseded()
+     */
+    @Nonnull
+    public EventSnapshot snapshot(int queueDepth, long superseded, @Nonnull List<LaneSnapshot> lanes) {
+        final DispatchTable table = registry.snapshot();
+        final List<HandlerSnapshot> snapshots = new ArrayList<>(table.handlers().length);
+
+        for (final HandlerReference handler : table.handlers()) {
+            snapshots.add(handler.metrics().snapshot(handler));
+        }
+
+        for (final DispatchTable keyed : table.keyedTables()) {
+            for (final HandlerReference handler : keyed.handlers()) {
+                snapshots.add(handler.metrics().snapshot(handler));
+            }
+        }
+
+        return new EventSnapshot(
+                System.nanoTime(),
+                queueDepth,
+                metrics.getEnqueued() - superseded,
+                metrics.getDequeued(),
+                superseded,
+                lanes,
+                snapshots
+        );
+    }
+
+    //
+    // Methods
+    //
+
+    /**
+     * Processes an event, invoking every handler which accepts it.
+     *
+     * @param event The event of which to process
+     */
+    public void process(@Nonnull Handleable event) {
+        final AwaitedEvent<?> awaited = event instanceof AwaitedEvent<?> a ? a : null;
+
+        process(registry.snapshot(), unwrap(event), awaited);
+        if (awaited != null) awaited.complete();
+
+        release(event);
+    }
+
+    /**
+     * Processes an event, invoking every handler of the provided snapshot which accepts it.
+     *
+     * @param table   The snapshot of handlers to look up handlers from
+     * @param event   The event of which to process
+     * @param awaited The envelope awaiting the completion of the event, if any
+     */
+    private void process(@Nonnull DispatchTable table, @Nonnull Handleable event, @Nullable AwaitedEvent<?> awaited) {
+        final HandlerReference[] handlers = table.get(event.getClass());
+        final HandlerReference[] keyed = keyedHandlers(table, event);
+        final boolean cancellable = event instanceof Cancellable;
+
+        List<CompletableFuture<Void>> pending = null;
+        HandlerPriority pendingPriority = null;
+
+        // Merge the regular and keyed handlers by execution priority
+        for (int i = 0, j = 0; i < handlers.length || j < keyed.length; ) {
+            final HandlerReference handler = j == keyed.length
+                    || (i < handlers.length && handlers[i].priority().compareTo(keyed[j].priority()) <= 0)
+                    ? handlers[i++]
+                    : keyed[j++];
+
+            // Wait for asynchronous handlers of earlier priorities to complete
+            if (pending != null && handler.priority() != pendingPriority) {
+                if (!join(pending)) return;
+                pending = null;
+            }
+
+            // Skip handlers which ignore the event since it has been cancelled
+            if (handler.skips(event)) continue;
+
+            if (!handler.async()) {
+                handle(handler, event);
+                continue;
+            }
+
+            // Handlers of non-cancellable events are never waited for, unless the event is awaited
+            if (!cancellable) {
+                retain(event);
+                if (awaited != null) awaited.fork();
+
+                asyncExecutor.execute(() -> {
+                    handle(handler, event);
+                    release(event);
+                    if (awaited != null) awaited.complete();
+                });
+                continue;
+            }
+
+            if (pending == null) pending = new ArrayList<>();
+            pending.add(CompletableFuture.runAsync(() -> handle(handler, event), asyncExecutor));
+            pendingPriority = handler.priority();
+        }
+
+        if (pending != null) join(pending);
+    }
+
+    /**
+     * Processes a batch of events. Every event is first processed individually in order,
+     * after which every {@link HandlerReference#batch() batch handler} is invoked once in
+     * order of execution priority with the list of events of the batch it accepts.
+     *
+     * @param events The list of events of which to process
+     */
+    public void processAll(@Nonnull List<? extends Handleable> events) {
+        final DispatchTable table = registry.snapshot();
+        List<AwaitedEvent<?>> awaited = null;
+
+        for (int i = 0; i < events.size(); i++) {
+            final Handleable event = events.get(i);
+
+            if (!(event instanceof AwaitedEvent<?> envelope)) {
+                process(table, event, null);
+                continue;
+            }
+
+            if (awaited == null) awaited = new ArrayList<>();
+            awaited.add(envelope);
+
+            process(table, envelope.getEvent(), envelope);
+        }
+
+        // Keyed batch handlers can only be looked up by the keys of the events
+        if (table.hasBatchHandlers() || table.hasKeyedHandlers()) processBatches(table, events);
+
+        // Complete the awaited events, unless they are still being handled asynchronously
+        if (awaited != null) awaited.forEach(AwaitedEvent::complete);
+        releaseAll(events);
+    }
+
+    /**
+     * Invokes every batch handler of the provided snapshot with the events it accepts.
+     *
+     * @param table  The snapshot of handlers to look up batch handlers from
+     * @param events The list of events of which to process
+     */
+    private void processBatches(@Nonnull DispatchTable table, @Nonnull List<? extends Handleable> events) {
+        // Most batches contain no event which a batch handler accepts, which is checked without allocating
+        if (!hasBatchHandlers(table, events)) return;
+
+        // Reuse the grouping structures of this thread, unless a batch handler has called a nested batch
+        final BatchGroups reusable = scratch.get();
+        final BatchGroups groups = reusable.inUse ? new BatchGroups() : reusable;
+        groups.inUse = true;
+
+        try {
+            group(table, events, groups);
+            groups.handlers.sort(PRIORITY_ORDER);
+
+            for (final HandlerReference handler : groups.handlers) {
+                final List<Handleable> batch = Collections.unmodifiableList(groups.batches.get(handler));
+
+                if (handler.async()) {
+                    final List<AwaitedEvent<?>> awaited = groups.forks.getOrDefault(handler, List.of());
+
+                    batch.forEach(EventProcessor::retain);
+                    awaited.forEach(AwaitedEvent::fork);
+
+                    asyncExecutor.execute(() -> {
+                        handleAll(handler, batch);
+                        releaseAll(batch);
+                        awaited.forEach(AwaitedEvent::complete);
+                    });
+                    continue;
+                }
+
+                handleAll(handler, batch);
+            }
+        } finally {
+            groups.clear();
+        }
+    }
+
+    /**
+     * Groups the events of a batch by the batch handlers which accept them.
+     *
+     * @param table  The snapshot of handlers to look up batch handlers from
+     * @param events The list of events of which to group
+     * @param groups The empty structures to group the events into
+     */
+    private void group(
+            @Nonnull DispatchTable table,
+            @Nonnull List<? extends Handleable> events,
+            @Nonnull BatchGroups groups
+    ) {
+        for (final Handleable element : events) {
+            final Handleable event = unwrap(element);
+            final Object key = keyOf(table, event);
+
+            final HandlerReference[] regular = table.getBatch(event.getClass());
+            final HandlerReference[] keyed = key != null ? table.getBatch(event.getClass(), key) : NO_HANDLERS;
+
+            for (int i = 0; i < regular.length + keyed.length; i++) {
+                final HandlerReference handler = i < regular.length ? regular[i] : keyed[i - regular.length];
+                if (handler.skips(event)) continue;
+
+                List<Handleable> batch = groups.batches.get(handler);
+
+                // The handlers are collected in the order they are first encountered
+                if (batch == null) {
+                    batch = new ArrayList<>();
+                    groups.batches.put(handler, batch);
+                    groups.handlers.add(handler);
+                }
+
+                batch.add(event);
+
+                // Asynchronous batch handlers must finish before awaited events are completed
+                if (!handler.async() || !(element instanceof AwaitedEvent<?> awaited)) continue;
+                groups.forks.computeIfAbsent(handler, h -> new ArrayList<>()).add(awaited);
+            }
+        }
+    }
+
+    /**
+     * Checks if any batch handler of the provided snapshot accepts an event of a batch.
+     *
+     * @param table  The snapshot of handlers to look up batch handlers from
+     * @param events The list of events of the batch
+     * @return {@code true} if at least one batch handler accepts an event of the batch
+     */
+    private static boolean hasBatchHandlers(@Nonnull DispatchTable table, @Nonnull List<? extends Handleable> events) {
+        for (int i = 0; i < events.size(); i++) {
+            final Handleable event = unwrap(events.get(i));
+            if (table.getBatch(event.getClass()).length > 0) return true;
+
+            final Object key = keyOf(table, event);
+            if (key != null && table.getBatch(event.getClass(), key).length > 0) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Invokes a batch handler, printing any exception to the print stream.
+     *
+     * @param handler The handler to invoke
+     * @param events  The list of events to handle
+     */
+    protected void handleAll(@Nonnull HandlerReference handler, @Nonnull List<? extends Handleable> events) {
+        final long start = System.nanoTime();
+
+        try {
+
+            // Invoke the batch handler
+            handler.handleAll(events);
+            handler.metrics().record(System.nanoTime() - start, false);
+
+        } catch (final HandlerException e) {
+
+            // Record the failed invocation before printing
+            handler.metrics().record(System.nanoTime() - start, true);
+
+            // Print the stack trace to the provided print stream
+            e.printStackTrace(printStream);
+
+        }
+    }
+
+    /**
+     * Invokes a handler, printing any exception to the print stream.
+     *
+     * @param handler The handler to invoke
+     * @param event   The event to handle
+     */
+    protected void handle(@Nonnull HandlerReference handler, @Nonnull Handleable event) {
+        final long start = System.nanoTime();
+
+        try {
+
+            // Invoke the event handler
+            handler.handle(event);
+            handler.metrics().record(System.nanoTime() - start, false);
+
+        } catch (final HandlerException e) {
+
+            // Record the failed invocation before printing
+            handler.metrics().record(System.nanoTime() - start, true);
+
+            // Print the stack trace to the provided print stream
+            e.printStackTrace(printStream);
+
+        }
+    }
+
+    /**
+     * Returns the key of an event if it is keyed, and the provided table has keyed handlers.
+     *
+     * @param table The snapshot of handlers to look up handlers from
+     * @param event The event of which to get the key of
+     * @return The key of the event, {@code null} if keyed handlers need not be looked up
+     */
+    @Nullable
+    private static Object keyOf(@Nonnull DispatchTable table, @Nonnull Handleable event) {
+        if (!table.hasKeyedHandlers() || !(event instanceof Keyed keyed)) return null;
+        return keyed.getKey();
+    }
+
+    /**
+     * Returns the keyed handlers of the provided table which accept an event.
+     *
+     * @param table The snapshot of handlers to look up handlers from
+     * @param event The event of which to get the keyed handlers of
+     * @return The array of keyed handlers which accept the event, sorted by execution priority
+     */
+    @Nonnull
+    private static HandlerReference[] keyedHandlers(@Nonnull DispatchTable table, @Nonnull Handleable event) {
+        final Object key = keyOf(table, event);
+        return key != null ? table.get(event.getClass(), key) : NO_HANDLERS;
+    }
+
+    /**
+     * Returns the event carried by an {@link Envelope}, or the event itself otherwise.
+     *
+     * @param event The event of which to unwrap
+     * @return The unwrapped event
+     */
+    @Nonnull
+    static Handleable unwrap(@Nonnull Handleable event) {
+        return event instanceof Envelope envelope ? envelope.getEvent() : event;
+    }
+
+    /**
+     * Acquires an additional reference to an event if it is pooled.
+     *
+     * @param event The event of which to retain
+     */
+    private static void retain(@Nonnull Handleable event) {
+        if (event instanceof PooledEvent pooled) pooled.retain();
+    }
+
+    /**
+     * Releases a reference to an event if it is pooled. A pooled event which has been released
+     * too many times by its handlers is reported to the print stream, as it must not terminate
+     * the processing thread.
+     *
+     * @param event The event of which to release
+     */
+    private void release(@Nonnull Handleable event) {
+        if (!(unwrap(event) instanceof PooledEvent pooled)) return;
+
+        try {
+            pooled.release();
+        } catch (final IllegalStateException e) {
+            e.printStackTrace(printStream);
+        }
+    }
+
+    /**
+     * Releases a reference to every pooled event of the provided list.
+     *
+     * @param events The list of events of which to release
+     */
+    private void releaseAll(@Nonnull List<? extends Handleable> events) {
+        for (int i = 0; i < events.size(); i++) {
+            release(events.get(i));
+        }
+    }
+
+    /**
+     * Waits for every pending asynchronous handler to complete.
+     *
+     * @param pending The list of pending handlers
+     * @return {@code false} if the processing thread was interrupted while waiting
+     */
+    private static boolean join(@Nonnull List<CompletableFuture<Void>> pending) {
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).get();
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (final ExecutionException e) {
+            return true; // Handler exceptions are already printed by handle()
+        }
+    }
+
+    //
+    // Batches
+    //
+
+    /**
+     * The structures which the events of a batch are grouped into by their batch handlers.
+     * Each processing thread reuses one instance for every batch, so that grouping does not
+     * allocate beyond the lists of events which are handed to the batch handlers.
+     */
+    private static final class BatchGroups {
+        /**
+         * The lists of events of each batch handler.
+         */
+        @Nonnull
+        private final Map<HandlerReference, List<Handleable>> batches = new HashMap<>();
+
+        /**
+         * The awaited events of each asynchronous batch handler.
+         */
+        @Nonnull
+        private final Map<HandlerReference, List<AwaitedEvent<?>>> forks = new HashMap<>();
+
+        /**
+         * The batch handlers which accept at least one event, in the order they were first encountered.
+         */
+        @Nonnull
+        private final List<HandlerReference> handlers = new ArrayList<>();
+
+        /**
+         * Whether these structures are currently used by the processing thread.
+         */
+        private boolean inUse = false;
+
+        /**
+         * Clears these structures after a batch has been processed.
+         */
+        private void clear() {
+            batches.clear();
+            forks.clear();
+            handlers.clear();
+            inUse = false;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.metrics.LaneSnapshot;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A queue of events which are pending to be processed by an event thread.
+ * Event queues may be offered events from any thread, but are generally only
+ * polled by the event thread which owns the queue. Implementations which support
+ * multiple consuming threads must explicitly document so.
+ *
+ * @see EventThread
+ * @see MpscEventQueue
+ * @see BoundedEventQueue
+ * @see MultiLaneEventQueue
+ */
+public interface EventQueue {
+    /**
+     * Offers an event to the end of this queue.
+     *
+     * @param event The event to offer
+     * @return {@code true} if the event was accepted by this queue
+     */
+    boolean offer(@Nonnull Handleable event);
+
+    /**
+     * Offers an event to a lane of this queue. Lane {@code 0} has the highest priority.
+     * Queues without multiple lanes offer events of lane {@code 0} by {@link #offerFirst(Handleable)},
+     * and events of any other lane by {@link #offer(Handleable)}.
+     *
+     * @param event The event to offer
+     * @param lane  The index of the lane to offer the event to
+     * @return {@code true} if the event was accepted by this queue
+     */
+    default boolean offer(@Nonnull Handleable event, int lane) {
+        return lane == 0 ? offerFirst(event) : offer(event);
+    }
+
+    /**
+     * Offers an event to the end of this queue without blocking the offering thread,
+     * or throwing an exception if the event is not accepted. Unbounded queues accept
+     * every event, and thus behave identically to {@link #offer(Handleable)}.
+     *
+     * @param event The event to offer
+     * @return {@code true} if the event was accepted by this queue
+     */
+    default boolean tryOffer(@Nonnull Handleable event) {
+        return offer(event);
+    }
+
+    /**
+     * Offers every event of the provided collection to the end of this queue,
+     * in the iteration order of the collection.
+     *
+     * @param events The collection of events to offer
+     * @return The number of events which were accepted by this queue
+     */
+    default int offerAll(@Nonnull Collection<? extends Handleable> events) {
+        int accepted = 0;
+
+        for (final Handleable event : events) {
+            if (offer(event)) accepted++;
+        }
+
+        return accepted;
+    }
+
+    /**
+     * Offers an event to this queue, instructing it to prioritize the event
+     * over all other events which are currently in the queue.
+     *
+     * @param event The event to offer
+     * @return {@code true} if the event was accepted by this queue
+     */
+    boolean offerFirst(@Nonnull Handleable event);
+
+    /**
+     * Retrieves and removes the next event of this queue.
+     *
+     * @return The next event if present, {@code null} if this queue is empty
+     */
+    @Nullable
+    Handleable poll();
+
+    /**
+     * Returns the number of events currently in this queue. As events can be
+     * offered concurrently, this is only an estimate.
+     *
+     * @return The approximate number of events in this queue
+     */
+    int size();
+
+    /**
+     * Returns whether this queue is empty.
+     *
+     * @return {@code true} if this queue contains no events
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of events which were accepted by this queue, but were removed from it
+     * without being {@link #poll() polled}, as they were merged into, replaced by, or discarded to
+     * make space for another event. Every accepted event is therefore either still queued, polled,
+     * or superseded. Queues which never remove accepted events return {@code 0}.
+     *
+     * @return The number of superseded events
+     */
+    default long getSuperseded() {
+        return 0;
+    }
+
+    /**
+     * Returns the time until an event which this queue is holding back becomes available to
+     * {@link #poll()}. Consumers must not idle for longer than this, as no producer will signal
+     * them once the event becomes due. Queues which never hold events back return
+     * {@link Long#MAX_VALUE}.
+     *
+     * @return The time until the next held event is due in nanoseconds, {@link Long#MAX_VALUE} if there is none
+     */
+    default long nanosUntilDue() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns a snapshot of the metrics of every lane of this queue, starting from
+     * the lane of the highest priority. Queues which do not track their lanes return
+     * an empty list.
+     *
+     * @return The list of lane snapshots
+     */
+    @Nonnull
+    default List<LaneSnapshot> getLaneMetrics() {
+        return List.of();
+    }
+}
@@ -1,24 +1,49 @@
 package civitas.celestis.event.lifecycle;
 
 import civitas.celestis.event.Handleable;
-import civitas.celestis.event.HandlerReference;
 import civitas.celestis.event.Listener;
-import civitas.celestis.exception.event.HandlerException;
+import civitas.celestis.event.metrics.EventSnapshot;
+import civitas.celestis.event.metrics.LaneSnapshot;
+import civitas.celestis.exception.event.EventQueueOverflowException;
 import jakarta.annotation.Nonnull;
 
 import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A thread which processes events. Event threads can either have an independent queue
- * and list of handlers, or share the resources with other threads. The sharing of event
- * queues or handler lists can be achieved by extending this class and using the protected
+ * and registry of handlers, or share the resources with other threads. The sharing of event
+ * queues or handler registries can be achieved by extending this class and using the protected
  * constructor to initialize the instance. The constructor is not public to ensure that any
  * multithreading is properly handled by a subclass which has proper synchronization measures.
+ * <p>
+ * Events can be called from any thread. While the event queue is empty, the thread behaves
+ * according to its {@link IdleStrategy}, which defaults to a {@link BackoffIdleStrategy}.
+ * Otherwise, the thread drains up to {@link #MAX_BATCH_SIZE} events from the queue at once,
+ * processing them in order, then delivering them to batch handlers.
+ * </p>
+ * <p>
+ * The event queue is unbounded by default. A {@link BoundedEventQueue} can be provided
+ * through a subclass to limit the number of pending events, in which case {@link #call(Handleable)}
+ * applies the {@link OverflowPolicy} of the queue, and {@link #tryCall(Handleable)} reports
+ * whether the event was accepted.
+ * </p>
  *
  * @see EventManager
+ * @see IdleStrategy
  */
 public class EventThread extends Thread implements EventManager {
+    //
+    // Constants
+    //
+
+    /**
+     * The maximum number of events drained from the queue at once. Drained events are
+     * processed in order, and are delivered to batch handlers as one list.
+     */
+    public static final int MAX_BATCH_SIZE = 1024;
+
     //
     // Constructors
     //
@@ -46,64 +71,96 @@ public class EventThread extends Thread implements EventManager {
      * @param printStream The print stream to print error messages to
      */
     public EventThread(@Nonnull String name, @Nonnull PrintStream printStream) {
+        this(name, new BackoffIdleStrategy(), printStream);
+    }
 
-        /*
-         * Since this constructor is used to create an event thread which uses an independent
-         * event queue and an independent handler list, the deque and list instances do not
-         * have to be concurrent. This ensures that there is no unnecessary overhead.
-         */
-
-        this(name, new ArrayDeque<>(), new ArrayList<>(), printStream);
+    /**
+     * Creates a new event thread.
+     *
+     * @param name         The name of this thread
+     * @param idleStrategy The strategy to use while the event queue is empty
+     * @param printStream  The print stream to print error messages to
+     */
+    public EventThread(@Nonnull String name, @Nonnull IdleStrategy idleStrategy, @Nonnull PrintStream printStream) {
+        this(name, new MpscEventQueue(), new HandlerRegistry(), idleStrategy, printStream);
     }
 
     /**
-     * Creates a new event thread. If the event queue and/or list of handler references are shared
-     * across threads, they must be a thread-safe collection. They must also not be immutable.
+     * Creates a new event thread. If the event queue is shared across threads,
+     * it must support multiple consumers. The handler registry is always thread-safe.
      *
-     * @param name        The name of this thread
-     * @param eventQueue  The event queue this thread should manage
-     * @param handlers    The list of handlers this thread should manage
-     * @param printStream The print stream to use to print error messages to
+     * @param name         The name of this thread
+     * @param eventQueue   The event queue this thread should manage
+     * @param registry     The registry of handlers this thread should manage
+     * @param idleStrategy The strategy to use while the event queue is empty
+     * @param printStream  The print stream to use to print error messages to
      */
     protected EventThread(
             @Nonnull String name,
-            @Nonnull Deque<Handleable> eventQueue,
-            @Nonnull List<HandlerReference> handlers,
+            @Nonnull EventQueue eventQueue,
+            @Nonnull HandlerRegistry registry,
+            @Nonnull IdleStrategy idleStrategy,
             @Nonnull PrintStream printStream
+    ) {
+        this(name, eventQueue, new EventProcessor(registry, printStream), idleStrategy);
+    }
+
+    /**
+     * Creates a new event thread. If the event queue is shared across threads, it must support
+     * multiple consumers. The event processor, along with its handler registry, can be shared
+     * freely. The idle strategy must not be shared, as it holds the idle state of this thread.
+     *
+     * @param name         The name of this thread
+     * @param eventQueue   The event queue this thread should manage
+     * @param processor    The event processor which invokes the handlers of each event
+     * @param idleStrategy The strategy to use while the event queue is empty
+     */
+    protected EventThread(
+            @Nonnull String name,
+            @Nonnull EventQueue eventQueue,
+            @Nonnull EventProcessor processor,
+            @Nonnull IdleStrategy idleStrategy
     ) {
         super(() -> {
 
+            // The reusable buffer of events drained from the queue
+            final List<Handleable> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
             //
             // START OF EVENT THREAD
             //
             // Created: v0.4
-            // Last Modified: v0.4
+            // Last Modified: v0.7
             //
 
             // Enter infinite loop while thread is active
             while (!Thread.interrupted()) {
 
                 // Poll the first event in the queue
-                final Handleable nextEvent = eventQueue.pollFirst();
-
-                // Continue looping if the event is null
-                if (nextEvent == null) continue;
+                final Handleable nextEvent = eventQueue.poll();
 
-                // Iterate through copy of list to prevent concurrent modification
-                for (final HandlerReference handler : List.copyOf(handlers)) {
-                    if (!handler.accepts(nextEvent)) continue;
-                    try {
-
-                        // Invoke the event handler
-                        handler.handle(nextEvent);
+                // Idle if the queue is empty, but no longer than until a held event is due
+                if (nextEvent == null) {
+                    idleStrategy.idle(eventQueue.nanosUntilDue());
+                    continue;
+                }
 
-                    } catch (final HandlerException e) {
+                // Reset the idle state, as there is work to do
+                idleStrategy.reset();
 
-                        // Print the stack trace to the provided print stream
-                        e.printStackTrace(printStream);
+                // Drain the queue up to the maximum batch size
+                batch.add(nextEvent);
 
-                    }
+                while (batch.size() < MAX_BATCH_SIZE) {
+                    final Handleable event = eventQueue.poll();
+                    if (event == null) break;
+                    batch.add(event);
                 }
+
+                // Invoke the handlers which accept the drained events
+                processor.getMetrics().dequeued(batch.size());
+                processor.processAll(batch);
+                batch.clear();
             }
 
             //
@@ -114,7 +171,9 @@ public class EventThread extends Thread implements EventManager {
 
         // Assign variables
         this.eventQueue = eventQueue;
-        this.handlers = handlers;
+        this.processor = processor;
+        this.registry = processor.getRegistry();
+        this.idleStrategy = idleStrategy;
     }
 
     //
@@ -125,13 +184,25 @@ public class EventThread extends Thread implements EventManager {
      * The queue of events.
      */
     @Nonnull
-    private final Deque<Handleable> eventQueue;
+    private final EventQueue eventQueue;
 
     /**
-     * The list of handlers.
+     * The event processor which invokes the handlers of each event.
      */
     @Nonnull
-    private final List<HandlerReference> handlers;
+    private final EventProcessor processor;
+
+    /**
+     * The registry of handlers.
+     */
+    @Nonnull
+    private final HandlerRegistry registry;
+
+    /**
+     * The strategy to use while the event queue is empty.
+     */
+    @Nonnull
+    private final IdleStrategy idleStrategy;
 
     //
     // Methods
@@ -145,7 +216,68 @@ public class EventThread extends Thread implements EventManager {
      */
     @Override
     public <E extends Handleable> void call(@Nonnull E event) {
-        eventQueue.offerLast(event);
+        if (eventQueue.offer(event)) processor.getMetrics().enqueued(1);
+        idleStrategy.signal(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The event is carried through the event queue together with its future, so that
+     * the future can be completed without handing the event over to another thread.
+     * If the event queue rejects the event, the future is completed exceptionally
+     * instead of the exception being thrown.
+     *
+     * @param event The event of which to handle
+     * @param <E>   {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public <E extends Handleable> CompletableFuture<E> callAsync(@Nonnull E event) {
+        final AwaitedEvent<E> awaited = new AwaitedEvent<>(event);
+        boolean accepted;
+
+        try {
+            accepted = eventQueue.offer(awaited);
+        } catch (final EventQueueOverflowException e) {
+            accepted = false;
+        }
+
+        // Discarding the envelope also releases its reference to a pooled event
+        if (accepted) processor.getMetrics().enqueued(1);
+        else awaited.discard();
+
+        idleStrategy.signal(this);
+        return awaited.getFuture();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event The event of which to handle
+     * @param <E>   {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public <E extends Handleable> boolean tryCall(@Nonnull E event) {
+        if (!eventQueue.tryOffer(event)) return false;
+
+        processor.getMetrics().enqueued(1);
+        idleStrategy.signal(this);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param events The collection of events of which to handle
+     */
+    @Override
+    public void callAll(@Nonnull Collection<? extends Handleable> events) {
+        if (events.isEmpty()) return;
+
+        processor.getMetrics().enqueued(eventQueue.offerAll(events));
+        idleStrategy.signal(this);
     }
 
     /**
@@ -156,7 +288,21 @@ public class EventThread extends Thread implements EventManager {
      */
     @Override
     public <E extends Handleable> void priorityCall(@Nonnull E event) {
-        eventQueue.addFirst(event);
+        if (eventQueue.offerFirst(event)) processor.getMetrics().enqueued(1);
+        idleStrategy.signal(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event The event of which to handle
+     * @param lane  {@inheritDoc}
+     * @param <E>   {@inheritDoc}
+     */
+    @Override
+    public <E extends Handleable> void call(@Nonnull E event, int lane) {
+        if (eventQueue.offer(event, lane)) processor.getMetrics().enqueued(1);
+        idleStrategy.signal(this);
     }
 
     /**
@@ -166,11 +312,18 @@ public class EventThread extends Thread implements EventManager {
      */
     @Override
     public void register(@Nonnull Listener listener) {
-        Objects.requireNonNull(listener);
-        handlers.addAll(listener.getHandlerReferences());
+        registry.register(listener);
+    }
 
-        // Preemptively sort the references by execution priority
-        handlers.sort(Comparator.comparing(HandlerReference::priority));
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to register to this event manager
+     * @param key      {@inheritDoc}
+     */
+    @Override
+    public void register(@Nonnull Listener listener, @Nonnull Object key) {
+        registry.register(listener, key);
     }
 
     /**
@@ -180,8 +333,7 @@ public class EventThread extends Thread implements EventManager {
      */
     @Override
     public void register(@Nonnull Iterable<? extends Listener> listeners) {
-        Objects.requireNonNull(listeners);
-        listeners.forEach(this::register);
+        registry.register(listeners);
     }
 
     /**
@@ -191,8 +343,18 @@ public class EventThread extends Thread implements EventManager {
      */
     @Override
     public void unregister(@Nonnull Listener listener) {
-        Objects.requireNonNull(listener);
-        handlers.removeAll(listener.getHandlerReferences());
+        registry.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to unregister from this event manager
+     * @param key      {@inheritDoc}
+     */
+    @Override
+    public void unregister(@Nonnull Listener listener, @Nonnull Object key) {
+        registry.unregister(listener, key);
     }
 
     /**
@@ -202,8 +364,18 @@ public class EventThread extends Thread implements EventManager {
      */
     @Override
     public void unregister(@Nonnull Iterable<? extends Listener> listeners) {
-        Objects.requireNonNull(listeners);
-        listeners.forEach(this::unregister);
+        registry.unregister(listeners);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public EventSnapshot getMetrics() {
+        return processor.snapshot(eventQueue.size(), eventQueue.getSuperseded(), eventQueue.getLaneMetrics());
     }
 
     /**
@@ -214,6 +386,34 @@ public class EventThread extends Thread implements EventManager {
         // Nothing to do here
     }
 
+    /**
+     * Returns the number of events currently pending in the event queue of this thread.
+     *
+     * @return The approximate number of pending events
+     */
+    protected int getQueueDepth() {
+        return eventQueue.size();
+    }
+
+    /**
+     * Returns the number of events superseded by the event queue of this thread.
+     *
+     * @return The number of superseded events
+     */
+    protected long getSuperseded() {
+        return eventQueue.getSuperseded();
+    }
+
+    /**
+     * Returns a snapshot of the metrics of every lane of the event queue of this thread.
+     *
+     * @return The list of lane snapshots
+     */
+    @Nonnull
+    protected List<LaneSnapshot> getLaneMetrics() {
+        return eventQueue.getLaneMetrics();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,263 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.HandlerReference;
+import civitas.celestis.event.Listener;
+import jakarta.annotation.Nonnull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe registry of event handlers. The registry publishes immutable snapshots of
+ * its handlers in the form of {@link DispatchTable}s, which are pre-sorted by execution priority.
+ * Every modification builds a new snapshot and atomically replaces the previous one, so that
+ * processing threads can read the current snapshot without locking, copying, or allocating.
+ * <p>
+ * Since every modification copies the handlers, registering multiple listeners should be
+ * done in bulk by {@link #register(Iterable)}, which rebuilds the snapshot only once.
+ * </p>
+ * <p>
+ * Keyed handlers are kept apart from the snapshot, in a concurrent index of nested tables
+ * by their key. Subscribing to or unsubscribing from a key only copies the handlers of
+ * that key, and leaves the snapshot and its lookup caches intact.
+ * </p>
+ *
+ * @see DispatchTable
+ * @see EventProcessor
+ */
+public class HandlerRegistry {
+    //
+    // Constants
+    //
+
+    /**
+     * The comparator which sorts handlers by their execution priority.
+     */
+    private static final Comparator<HandlerReference> PRIORITY_ORDER = Comparator.comparing(HandlerReference::priority);
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new empty handler registry.
+     */
+    public HandlerRegistry() {
+        this.keyed = new ConcurrentHashMap<>();
+        this.snapshot = new AtomicReference<>(new DispatchTable(new HandlerReference[0], keyed));
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The current snapshot of handlers.
+     */
+    @Nonnull
+    private final AtomicReference<DispatchTable> snapshot;
+
+    /**
+     * The nested tables of keyed handlers, mapped by their key.
+     */
+    @Nonnull
+    private final ConcurrentHashMap<Object, DispatchTable> keyed;
+
+    //
+    // Getters
+    //
+
+    /**
+     * Returns the current snapshot of handlers. The snapshot is immutable, and does
+     * not reflect modifications made to this registry after it was retrieved.
+     *
+     * @return The current snapshot of handlers
+     */
+    @Nonnull
+    public DispatchTable snapshot() {
+        return snapshot.get();
+    }
+
+    //
+    // Registration
+    //
+
+    /**
+     * Registers every handler of an event listener to this registry.
+     *
+     * @param listener The event listener to register
+     */
+    public void register(@Nonnull Listener listener) {
+        Objects.requireNonNull(listener);
+        add(listener.getHandlerReferences());
+    }
+
+    /**
+     * Registers every handler of an event listener to this registry, scoped to the provided key.
+     * The handlers only receive {@link civitas.celestis.event.Keyed Keyed} events of an equal key.
+     *
+     * @param listener The event listener to register
+     * @param key      The key to scope the handlers of the listener to
+     */
+    public void register(@Nonnull Listener listener, @Nonnull Object key) {
+        Objects.requireNonNull(listener);
+        Objects.requireNonNull(key);
+
+        final List<HandlerReference> added = new ArrayList<>();
+        listener.getHandlerReferences().forEach(handler -> added.add(handler.keyed(key)));
+
+        add(key, added);
+    }
+
+    /**
+     * Registers every handler of multiple event listeners to this registry at once.
+     *
+     * @param listeners The iterable object containing the listeners to register
+     */
+    public void register(@Nonnull Iterable<? extends Listener> listeners) {
+        Objects.requireNonNull(listeners);
+
+        final List<HandlerReference> added = new ArrayList<>();
+        listeners.forEach(listener -> added.addAll(listener.getHandlerReferences()));
+
+        add(added);
+    }
+
+    /**
+     * Unregisters every handler of an event listener from this registry, including its keyed handlers.
+     * As the keys of the listener are not known, this visits the handlers of every key.
+     *
+     * @param listener The event listener to unregister
+     */
+    public void unregister(@Nonnull Listener listener) {
+        Objects.requireNonNull(listener);
+        remove(handler -> handler.listener().equals(listener));
+    }
+
+    /**
+     * Unregisters the handlers of an event listener which are scoped to the provided key.
+     * Handlers of the listener which are scoped to other keys, or are not keyed, remain registered.
+     *
+     * @param listener The event listener to unregister
+     * @param key      The key of the handlers to unregister
+     */
+    public void unregister(@Nonnull Listener listener, @Nonnull Object key) {
+        Objects.requireNonNull(listener);
+        Objects.requireNonNull(key);
+
+        remove(key, handler -> handler.listener().equals(listener));
+    }
+
+    /**
+     * Unregisters every handler of multiple event listeners from this registry at once.
+     *
+     * @param listeners The iterable object containing the listeners to unregister
+     */
+    public void unregister(@Nonnull Iterable<? extends Listener> listeners) {
+        Objects.requireNonNull(listeners);
+
+        final Set<Listener> removed = new HashSet<>();
+        listeners.forEach(removed::add);
+
+        remove(handler -> removed.contains(handler.listener()));
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Publishes a new snapshot which contains the current handlers and the added handlers.
+     *
+     * @param added The collection of handlers to add
+     */
+    private void add(@Nonnull Collection<HandlerReference> added) {
+        if (added.isEmpty()) return;
+
+        final HandlerReference[] additions = added.toArray(new HandlerReference[0]);
+        snapshot.updateAndGet(current -> new DispatchTable(merge(current.handlers(), additions), keyed));
+    }
+
+    /**
+     * Replaces the nested table of a key with one which contains its current handlers and the added handlers.
+     *
+     * @param key   The key of the handlers
+     * @param added The collection of handlers to add
+     */
+    private void add(@Nonnull Object key, @Nonnull Collection<HandlerReference> added) {
+        if (added.isEmpty()) return;
+
+        final HandlerReference[] additions = added.toArray(new HandlerReference[0]);
+
+        keyed.compute(key, (k, current) -> {
+            final HandlerReference[] previous = current != null ? current.handlers() : new HandlerReference[0];
+            return new DispatchTable(merge(previous, additions), Map.of());
+        });
+    }
+
+    /**
+     * Publishes a new snapshot which contains every current handler which does not match
+     * the provided filter, then does the same for the nested table of every key.
+     *
+     * @param filter The filter of handlers to remove
+     */
+    private void remove(@Nonnull Predicate<HandlerReference> filter) {
+        snapshot.updateAndGet(current -> {
+            final HandlerReference[] handlers = filter(current.handlers(), filter);
+            return handlers == current.handlers() ? current : new DispatchTable(handlers, keyed);
+        });
+
+        for (final Object key : keyed.keySet()) remove(key, filter);
+    }
+
+    /**
+     * Replaces the nested table of a key with one which contains every current handler of the key
+     * which does not match the provided filter. The table is removed if no handlers remain.
+     *
+     * @param key    The key of the handlers
+     * @param filter The filter of handlers to remove
+     */
+    private void remove(@Nonnull Object key, @Nonnull Predicate<HandlerReference> filter) {
+        keyed.computeIfPresent(key, (k, current) -> {
+            final HandlerReference[] handlers = filter(current.handlers(), filter);
+            if (handlers.length == 0) return null;
+
+            return handlers == current.handlers() ? current : new DispatchTable(handlers, Map.of());
+        });
+    }
+
+    /**
+     * Merges an array of handlers into an array of handlers which is sorted by execution priority.
+     *
+     * @param previous  The array of handlers, sorted by execution priority
+     * @param additions The array of handlers to add
+     * @return The new array of handlers, sorted by execution priority
+     */
+    @Nonnull
+    private static HandlerReference[] merge(@Nonnull HandlerReference[] previous, @Nonnull HandlerReference[] additions) {
+        final HandlerReference[] handlers = Arrays.copyOf(previous, previous.length + additions.length);
+        System.arraycopy(additions, 0, handlers, previous.length, additions.length);
+
+        // The sort is stable, preserving the registration order within each priority
+        Arrays.sort(handlers, PRIORITY_ORDER);
+        return handlers;
+    }
+
+    /**
+     * Returns the handlers of an array which do not match the provided filter.
+     *
+     * @param handlers The array of handlers
+     * @param filter   The filter of handlers to remove
+     * @return The array of remaining handlers, or the provided array itself if no handlers were removed
+     */
+    @Nonnull
+    private static HandlerReference[] filter(@Nonnull HandlerReference[] handlers, @Nonnull Predicate<HandlerReference> filter) {
+        final HandlerReference[] remaining = Arrays.stream(handlers)
+                .filter(filter.negate())
+                .toArray(HandlerReference[]::new);
+
+        return remaining.length == handlers.length ? handlers : remaining;
+    }
+}
@@ -0,0 +1,51 @@
+package civitas.celestis.event.lifecycle;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * Defines how a consuming thread behaves while it has no work to do.
+ * Idle strategies trade latency for CPU usage; spinning strategies react to
+ * new work the fastest, while parking and blocking strategies free the core
+ * for other threads at the cost of a wake-up delay.
+ * <p>
+ * Idle strategies are stateful, and an instance must only be used by one
+ * consuming thread. Producing threads may call {@link #signal(Thread)} concurrently.
+ * </p>
+ *
+ * @see BusySpinIdleStrategy
+ * @see YieldingIdleStrategy
+ * @see BackoffIdleStrategy
+ * @see BlockingIdleStrategy
+ */
+public interface IdleStrategy {
+    /**
+     * Called by the consuming thread when it has found no work to do.
+     * The consumer is expected to check for work again after this returns.
+     */
+    void idle();
+
+    /**
+     * Called by the consuming thread when it has found no work to do, but knows that work
+     * will become available within the provided period without a {@link #signal(Thread) signal}.
+     * Strategies which suspend the consumer must not suspend it for longer than the period.
+     *
+     * @param maxNanos The maximum period to idle for in nanoseconds, {@link Long#MAX_VALUE} if unbounded
+     */
+    default void idle(long maxNanos) {
+        idle();
+    }
+
+    /**
+     * Called by the consuming thread when it has found work to do,
+     * resetting any accumulated backoff state.
+     */
+    void reset();
+
+    /**
+     * Called by a producing thread after it has made work available to the consumer.
+     * Strategies which suspend the consumer indefinitely must wake it up here.
+     *
+     * @param consumer The consuming thread
+     */
+    default void signal(@Nonnull Thread consumer) {}
+}
@@ -0,0 +1,127 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Handleable;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Collection;
+
+/**
+ * An unbounded lock-free multi-producer single-consumer event queue. Any number of
+ * threads may offer events concurrently, but only one thread may poll at a time.
+ * Prioritized events are held in a separate lane which is always drained first,
+ * and are processed in the order they were offered.
+ * <p>
+ * Offering an event consists of a single atomic exchange, and polling does not
+ * involve any atomic read-modify-write operation at all. Neither operation locks.
+ * </p>
+ *
+ * @see EventQueue
+ * @see MpscLane
+ * @see EventThread
+ */
+public class MpscEventQueue implements EventQueue {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new empty queue.
+     */
+    public MpscEventQueue() {
+        this.normal = new MpscLane();
+        this.priority = new MpscLane();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The lane of regular events.
+     */
+    @Nonnull
+    private final MpscLane normal;
+
+    /**
+     * The lane of prioritized events.
+     */
+    @Nonnull
+    private final MpscLane priority;
+
+    //
+    // Methods
+    //
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event The event to offer
+     * @return {@code true}, as this queue is unbounded
+     */
+    @Override
+    public boolean offer(@Nonnull Handleable event) {
+        normal.offer(event);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The events are appended atomically, so that they are not interleaved with
+     * events offered concurrently by other threads.
+     *
+     * @param events The collection of events to offer
+     * @return The number of events, as this queue is unbounded
+     */
+    @Override
+    public int offerAll(@Nonnull Collection<? extends Handleable> events) {
+        normal.offerAll(events);
+        return events.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event The event to offer
+     * @return {@code true}, as this queue is unbounded
+     */
+    @Override
+    public boolean offerFirst(@Nonnull Handleable event) {
+        priority.offer(event);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * This must only be called by the consuming thread.
+     *
+     * @return {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    public Handleable poll() {
+        final Handleable prioritized = priority.poll();
+        return prioritized != null ? prioritized : normal.poll();
+    }
+
+    /**
+     * {@inheritDoc}
+     * This can be called from any thread in constant time.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return priority.size() + normal.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return priority.isEmpty() && normal.isEmpty();
+    }
+}
@@ -0,0 +1,204 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Handleable;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An unbounded lock-free multi-producer single-consumer lane of events. Producers atomically
+ * swap the tail node, then link the previous tail to the new node. The consumer follows the
+ * links from the head node, which is always a consumed sentinel node.
+ * <p>
+ * The number of appended and polled events are counted separately, so that the size of a
+ * lane can be read from any thread in constant time without traversing its nodes.
+ * </p>
+ * <p>
+ * Lanes are the building blocks of the lock-free event queues of this package,
+ * and are not exposed by themselves.
+ * </p>
+ *
+ * @see MpscEventQueue
+ * @see MultiLaneEventQueue
+ */
+final class MpscLane {
+    //
+    // Constants
+    //
+
+    /**
+     * The variable handle of {@link #head}, used to publish the head node to non-consuming threads.
+     */
+    private static final VarHandle HEAD;
+
+    static {
+        try {
+            HEAD = MethodHandles.lookup().findVarHandle(MpscLane.class, "head", Node.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new empty lane.
+     */
+    MpscLane() {
+        final Node sentinel = new Node(null);
+        this.head = sentinel;
+        this.tail = new AtomicReference<>(sentinel);
+        this.appended = new LongAdder();
+        this.polled = new AtomicLong();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The head (sentinel) node. Only written by the consuming thread, which publishes it with
+     * release semantics so that other threads can read it through {@link #HEAD}.
+     */
+    @Nonnull
+    private Node head;
+
+    /**
+     * The tail node. Swapped by producing threads.
+     */
+    @Nonnull
+    private final AtomicReference<Node> tail;
+
+    /**
+     * The number of events appended by producing threads.
+     */
+    @Nonnull
+    private final LongAdder appended;
+
+    /**
+     * The number of events polled by the consuming thread. Only written by the consuming thread.
+     */
+    @Nonnull
+    private final AtomicLong polled;
+
+    //
+    // Methods
+    //
+
+    /**
+     * Appends an event to this lane.
+     *
+     * @param event The event to append
+     */
+    void offer(@Nonnull Handleable event) {
+        final Node node = new Node(event);
+        tail.getAndSet(node).next = node;
+        appended.increment();
+    }
+
+    /**
+     * Appends every event of the provided collection to this lane. The nodes are
+     * linked privately, then published with a single atomic exchange.
+     *
+     * @param events The collection of events to append
+     */
+    void offerAll(@Nonnull Collection<? extends Handleable> events) {
+        Node first = null;
+        Node last = null;
+        int count = 0;
+
+        for (final Handleable event : events) {
+            final Node node = new Node(event);
+            count++;
+
+            if (last == null) first = node;
+            else last.next = node;
+
+            last = node;
+        }
+
+        if (last == null) return;
+        tail.getAndSet(last).next = first;
+        appended.add(count);
+    }
+
+    /**
+     * Removes the first event of this lane. This must only be called by the consuming thread.
+     *
+     * @return The first event if present, {@code null} otherwise
+     */
+    @Nullable
+    Handleable poll() {
+        final Node next = head.next;
+        if (next == null) return null;
+
+        final Handleable event = next.event;
+        next.event = null; // Allow the event to be garbage collected
+        HEAD.setRelease(this, next);
+
+        // The consuming thread is the only writer, so an ordered store suffices
+        polled.lazySet(polled.get() + 1);
+
+        return event;
+    }
+
+    /**
+     * Returns the number of events of this lane. This can be called from any thread, and may
+     * be off by the number of events which are being appended or polled concurrently.
+     *
+     * @return The number of appended events which have not yet been polled
+     */
+    int size() {
+        return (int) Math.min(Math.max(appended.sum() - polled.get(), 0), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns whether this lane is empty. This can be called from any thread, as the head
+     * node is read with acquire semantics. An event which is being appended concurrently
+     * may not yet be linked, in which case this lane is considered empty.
+     *
+     * @return {@code true} if there are no linked events in this lane
+     */
+    boolean isEmpty() {
+        final Node current = (Node) HEAD.getAcquire(this);
+        return current.next == null;
+    }
+
+    //
+    // Nodes
+    //
+
+    /**
+     * A node of a lane.
+     */
+    private static final class Node {
+        /**
+         * Creates a new node.
+         *
+         * @param event The event this node holds
+         */
+        private Node(@Nullable Handleable event) {
+            this.event = event;
+        }
+
+        /**
+         * The event this node holds. This is cleared once the event is polled.
+         */
+        @Nullable
+        private Handleable event;
+
+        /**
+         * The next node, published by the producer which appended it.
+         */
+        @Nullable
+        private volatile Node next;
+    }
+}
@@ -0,0 +1,261 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.metrics.LaneSnapshot;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An unbounded lock-free multi-producer single-consumer event queue with multiple lanes
+ * of priority. Lane {@code 0} has the highest priority, and the last lane is the lane of
+ * regular events. Prioritized events are offered to lane {@code 0}.
+ * <p>
+ * Unlike {@link MpscEventQueue}, which always drains prioritized events first, lanes are
+ * served by weighted round-robin. Each lane has a weight, which is the maximum number of
+ * events which are polled from the lane before moving on to the next lane. Empty lanes are
+ * skipped immediately. A burst of prioritized events can therefore never starve the lower
+ * lanes; while every lane is saturated, each lane receives a share of the throughput which
+ * is proportional to its weight, and an event waits for at most the sum of the weights of
+ * the other lanes per round.
+ * </p>
+ * <p>
+ * The number of events offered to and polled from each lane is counted, and can be read
+ * from any thread by {@link #getLaneMetrics()}.
+ * </p>
+ *
+ * @see EventQueue
+ * @see EventManager#call(Handleable, int)
+ */
+public class MultiLaneEventQueue implements EventQueue {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new multi-lane event queue with three lanes, of weights {@code 4}, {@code 2}, and {@code 1}.
+     */
+    public MultiLaneEventQueue() {
+        this(4, 2, 1);
+    }
+
+    /**
+     * Creates a new multi-lane event queue. The number of lanes is equal to the number of weights.
+     *
+     * @param weights The weight of each lane, starting from the lane of the highest priority
+     */
+    public MultiLaneEventQueue(@Nonnull int... weights) {
+        if (weights.length < 1) {
+            throw new IllegalArgumentException("A multi-lane event queue must have at least 1 lane.");
+        }
+
+        for (final int weight : weights) {
+            if (weight < 1) {
+                throw new IllegalArgumentException("The weight of a lane cannot be less than 1.");
+            }
+        }
+
+        this.weights = weights.clone();
+        this.lanes = new MpscLane[weights.length];
+        this.enqueued = new LongAdder[weights.length];
+        this.dequeued = new AtomicLongArray(weights.length);
+
+        for (int i = 0; i < weights.length; i++) {
+            lanes[i] = new MpscLane();
+            enqueued[i] = new LongAdder();
+        }
+
+        this.credit = this.weights[0];
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The weight of each lane.
+     */
+    @Nonnull
+    private final int[] weights;
+
+    /**
+     * The array of lanes, starting from the lane of the highest priority.
+     */
+    @Nonnull
+    private final MpscLane[] lanes;
+
+    /**
+     * The number of events offered to each lane.
+     */
+    @Nonnull
+    private final LongAdder[] enqueued;
+
+    /**
+     * The number of events polled from each lane. Only written by the consuming thread.
+     */
+    @Nonnull
+    private final AtomicLongArray dequeued;
+
+    /**
+     * The index of the lane currently being served. Only accessed by the consuming thread.
+     */
+    private int current = 0;
+
+    /**
+     * The number of events which can still be polled from the current lane this round.
+     * Only accessed by the consuming thread.
+     */
+    private int credit;
+
+    //
+    // Getters
+    //
+
+    /**
+     * Returns the number of lanes of this queue.
+     *
+     * @return The number of lanes
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    //
+    // Methods
+    //
+
+    /**
+     * {@inheritDoc}
+     * The event is offered to the last lane.
+     *
+     * @param event The event to offer
+     * @return {@code true}, as this queue is unbounded
+     */
+    @Override
+    public boolean offer(@Nonnull Handleable event) {
+        return offer(event, lanes.length - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event The event to offer
+     * @param lane  The index of the lane to offer the event to
+     * @return {@code true}, as this queue is unbounded
+     * @throws IndexOutOfBoundsException When the lane does not exist
+     */
+    @Override
+    public boolean offer(@Nonnull Handleable event, int lane) {
+        lanes[lane].offer(event);
+        enqueued[lane].increment();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The events are appended atomically to the last lane.
+     *
+     * @param events The collection of events to offer
+     * @return The number of events, as this queue is unbounded
+     */
+    @Override
+    public int offerAll(@Nonnull Collection<? extends Handleable> events) {
+        final int lane = lanes.length - 1;
+
+        lanes[lane].offerAll(events);
+        enqueued[lane].add(events.size());
+        return events.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The event is offered to lane {@code 0}, and is subject to the weights of the lanes.
+     *
+     * @param event The event to offer
+     * @return {@code true}, as this queue is unbounded
+     */
+    @Override
+    public boolean offerFirst(@Nonnull Handleable event) {
+        return offer(event, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * This must only be called by the consuming thread.
+     *
+     * @return {@inheritDoc}
+     */
+    @Nullable
+    @Override
+    public Handleable poll() {
+        for (int i = 0; i <= lanes.length; i++) {
+            if (credit > 0) {
+                final Handleable event = lanes[current].poll();
+
+                if (event != null) {
+                    credit--;
+                    dequeued.lazySet(current, dequeued.get(current) + 1);
+                    return event;
+                }
+            }
+
+            // Move on to the next lane, as the current lane is either empty or out of credit
+            current = current + 1 == lanes.length ? 0 : current + 1;
+            credit = weights[current];
+        }
+
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        long size = 0;
+
+        for (int i = 0; i < lanes.length; i++) {
+            size += Math.max(enqueued[i].sum() - dequeued.get(i), 0);
+        }
+
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        for (final MpscLane lane : lanes) {
+            if (!lane.isEmpty()) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public List<LaneSnapshot> getLaneMetrics() {
+        final List<LaneSnapshot> snapshots = new ArrayList<>(lanes.length);
+
+        for (int i = 0; i < lanes.length; i++) {
+            snapshots.add(new LaneSnapshot(i, weights[i], enqueued[i].sum(), dequeued.get(i)));
+        }
+
+        return snapshots;
+    }
+}
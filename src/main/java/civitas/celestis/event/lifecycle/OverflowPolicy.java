@@ -0,0 +1,39 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.exception.event.EventQueueOverflowException;
+
+/**
+ * The policy of a {@link BoundedEventQueue}, which determines what happens when an
+ * event is offered to a queue which has reached its capacity.
+ *
+ * @see BoundedEventQueue
+ */
+public enum OverflowPolicy {
+    /**
+     * Blocks the offering thread until space becomes available in the queue.
+     * Threads which consume from the queue are never blocked, as they would be waiting
+     * for themselves, and their events are discarded instead.
+     */
+    BLOCK,
+
+    /**
+     * Discards the offered event, leaving the queue unchanged.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Discards the oldest event of the queue to make space for the offered event.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Replaces the most recently queued event which shares the coalescing key of the
+     * offered event. If no such event is queued, the offered event is discarded.
+     */
+    COALESCE,
+
+    /**
+     * Throws an {@link EventQueueOverflowException} to the offering thread.
+     */
+    REJECT
+}
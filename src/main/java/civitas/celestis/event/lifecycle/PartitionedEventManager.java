@@ -0,0 +1,396 @@
+package civitas.celestis.event.lifecycle;
+
+import civitas.celestis.event.Handleable;
+import civitas.celestis.event.Listener;
+import civitas.celestis.event.metrics.EventSnapshot;
+import civitas.celestis.event.metrics.LaneSnapshot;
+import jakarta.annotation.Nonnull;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An asynchronous multithreaded event manager which partitions events across multiple
+ * event threads by a key extracted from each event. Events which share the same key are
+ * always routed to the same thread, and are thus processed in the order they were called.
+ * Events with different keys may be processed in parallel.
+ * <p>
+ * By default, events are partitioned by their {@link Handleable#getUniqueId() unique identifier},
+ * which distributes events evenly but guarantees no ordering between distinct events. A custom
+ * key function should be provided when related events must be processed in order. (e.g. by
+ * extracting the identifier of the entity the event is related to)
+ * </p>
+ * <p>
+ * All threads share one registry of handlers. Handlers must therefore be thread-safe, as they
+ * may be invoked by multiple threads at the same time.
+ * </p>
+ *
+ * @see EventManager
+ * @see EventThread
+ */
+public class PartitionedEventManager implements EventManager {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new partitioned event manager with one thread per available processor.
+     */
+    public PartitionedEventManager() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new partitioned event manager which partitions events by their unique identifier.
+     *
+     * @param n The number of threads to initialize
+     */
+    public PartitionedEventManager(int n) {
+        this(n, Handleable::getUniqueId);
+    }
+
+    /**
+     * Creates a new partitioned event manager.
+     *
+     * @param n           The number of threads to initialize
+     * @param keyFunction The function to extract the partitioning key of an event with
+     */
+    public PartitionedEventManager(int n, @Nonnull Function<? super Handleable, ?> keyFunction) {
+        this(n, keyFunction, BackoffIdleStrategy::new, System.out);
+    }
+
+    /**
+     * Creates a new partitioned event manager.
+     *
+     * @param n            The number of threads to initialize
+     * @param keyFunction  The function to extract the partitioning key of an event with
+     * @param idleStrategy The supplier of idle strategies, which is called once per thread
+     * @param printStream  The print stream to print error messages to
+     */
+    public PartitionedEventManager(
+            int n,
+            @Nonnull Function<? super Handleable, ?> keyFunction,
+            @Nonnull Supplier<? extends IdleStrategy> idleStrategy,
+            @Nonnull PrintStream printStream
+    ) {
+        this(n, keyFunction, MpscEventQueue::new, idleStrategy, printStream);
+    }
+
+    /**
+     * Creates a new partitioned event manager. Each partition is given its own event queue,
+     * which allows the number of pending events to be limited per partition by supplying
+     * {@link BoundedEventQueue bounded event queues}.
+     *
+     * @param n            The number of threads to initialize
+     * @param keyFunction  The function to extract the partitioning key of an event with
+     * @param eventQueue   The supplier of event queues, which is called once per thread
+     * @param idleStrategy The supplier of idle strategies, which is called once per thread
+     * @param printStream  The print stream to print error messages to
+     */
+    public PartitionedEventManager(
+            int n,
+            @Nonnull Function<? super Handleable, ?> keyFunction,
+            @Nonnull Supplier<? extends EventQueue> eventQueue,
+            @Nonnull Supplier<? extends IdleStrategy> idleStrategy,
+            @Nonnull PrintStream printStream
+    ) {
+        if (n < 1) {
+            throw new IllegalArgumentException("A partitioned event manager cannot have fewer than 1 thread.");
+        }
+
+        final EventProcessor processor = new EventProcessor(new HandlerRegistry(), printStream);
+
+        this.keyFunction = Objects.requireNonNull(keyFunction);
+        this.processor = processor;
+        this.registry = processor.getRegistry();
+        this.threads = new Partition[n];
+
+        for (int i = 0; i < n; i++) {
+            threads[i] = new Partition(
+                    "PartitionedEventManager-" + (i + 1),
+                    eventQueue.get(),
+                    processor,
+                    idleStrategy.get()
+            );
+        }
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The function to extract the partitioning key of an event with.
+     */
+    @Nonnull
+    private final Function<? super Handleable, ?> keyFunction;
+
+    /**
+     * The event processor shared by every partition.
+     */
+    @Nonnull
+    private final EventProcessor processor;
+
+    /**
+     * The registry of handlers shared by every partition.
+     */
+    @Nonnull
+    private final HandlerRegistry registry;
+
+    /**
+     * The array of partition threads.
+     */
+    @Nonnull
+    private final Partition[] threads;
+
+    //
+    // Methods
+    //
+
+    /**
+     * Returns the thread which is responsible for processing the provided event.
+     *
+     * @param event The event of which to find the thread of
+     * @return The thread responsible for the event
+     */
+    @Nonnull
+    protected EventThread partition(@Nonnull Handleable event) {
+        final Object key = keyFunction.apply(event);
+        if (key == null) return threads[0];
+
+        // Spread the higher bits of the hash code to the lower bits
+        final int hash = key.hashCode();
+        return threads[Math.floorMod(hash ^ (hash >>> 16), threads.length)];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event The event of which to handle
+     * @param <E>   {@inheritDoc}
+     */
+    @Override
+    public <E extends Handleable> void call(@Nonnull E event) {
+        partition(event).call(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event The event of which to handle
+     * @param <E>   {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public <E extends Handleable> CompletableFuture<E> callAsync(@Nonnull E event) {
+        return partition(event).callAsync(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event The event of which to handle
+     * @param <E>   {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public <E extends Handleable> boolean tryCall(@Nonnull E event) {
+        return partition(event).tryCall(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The events are grouped by partition, and each group is enqueued in bulk.
+     *
+     * @param events The collection of events of which to handle
+     */
+    @Override
+    public void callAll(@Nonnull Collection<? extends Handleable> events) {
+        final Map<EventThread, List<Handleable>> partitions = new HashMap<>();
+
+        for (final Handleable event : events) {
+            partitions.computeIfAbsent(partition(event), t -> new ArrayList<>()).add(event);
+        }
+
+        partitions.forEach(EventThread::callAll);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Prioritized events are only prioritized over the events of the same partition.
+     *
+     * @param event THe event of which to prioritize
+     * @param <E>   {@inheritDoc}
+     */
+    @Override
+    public <E extends Handleable> void priorityCall(@Nonnull E event) {
+        partition(event).priorityCall(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Lanes are only prioritized over the events of the same partition.
+     *
+     * @param event The event of which to handle
+     * @param lane  {@inheritDoc}
+     * @param <E>   {@inheritDoc}
+     */
+    @Override
+    public <E extends Handleable> void call(@Nonnull E event, int lane) {
+        partition(event).call(event, lane);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to register to this event manager
+     */
+    @Override
+    public void register(@Nonnull Listener listener) {
+        registry.register(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to register to this event manager
+     * @param key      {@inheritDoc}
+     */
+    @Override
+    public void register(@Nonnull Listener listener, @Nonnull Object key) {
+        registry.register(listener, key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listeners The iterable object containing the listeners to register
+     */
+    @Override
+    public void register(@Nonnull Iterable<? extends Listener> listeners) {
+        registry.register(listeners);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to unregister from this event manager
+     */
+    @Override
+    public void unregister(@Nonnull Listener listener) {
+        registry.unregister(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listener The event listener to unregister from this event manager
+     * @param key      {@inheritDoc}
+     */
+    @Override
+    public void unregister(@Nonnull Listener listener, @Nonnull Object key) {
+        registry.unregister(listener, key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param listeners The iterable object containing the listeners to unregister
+     */
+    @Override
+    public void unregister(@Nonnull Iterable<? extends Listener> listeners) {
+        registry.unregister(listeners);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The metrics are aggregated across every partition.
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public EventSnapshot getMetrics() {
+        final List<LaneSnapshot> lanes = new ArrayList<>();
+        int queueDepth = 0;
+        long superseded = 0;
+
+        for (final Partition thread : threads) {
+            queueDepth += thread.getQueueDepth();
+            superseded += thread.getSuperseded();
+
+            // Combine the snapshots of the same lane of every partition
+            final List<LaneSnapshot> partitionLanes = thread.getLaneMetrics();
+
+            for (int i = 0; i < partitionLanes.size(); i++) {
+                if (i < lanes.size()) lanes.set(i, lanes.get(i).plus(partitionLanes.get(i)));
+                else lanes.add(partitionLanes.get(i));
+            }
+        }
+
+        return processor.snapshot(queueDepth, superseded, lanes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initialize() {
+        // Nothing to do here
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        for (final Partition thread : threads) thread.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void interrupt() {
+        for (final Partition thread : threads) thread.interrupt();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void terminate() {
+        for (final Partition thread : threads) thread.terminate();
+    }
+
+    //
+    // Partitions
+    //
+
+    /**
+     * An event thread which processes the events of one partition. Each partition
+     * has its own event queue, and shares the registry of handlers with every other partition.
+     */
+    private static final class Partition extends EventThread {
+        /**
+         * Creates a new partition.
+         *
+         * @param name         The name of this thread
+         * @param eventQueue   The event queue of this partition
+         * @param processor    The shared event processor
+         * @param idleStrategy The idle strategy of this thread
+         */
+        private Partition(
+                @Nonnull String name,
+                @Nonnull EventQueue eventQueue,
+                @Nonnull EventProcessor processor,
+                @Nonnull IdleStrategy idleStrategy
+        ) {
+            super(name, eventQueue, processor, idleStrategy);
+        }
+    }
+}
@@ -32,4 +32,48 @@ public class SyncEventManager extends EventThread {
     public SyncEventManager(@Nonnull PrintStream printStream) {
         super("SyncEventManager", printStream);
     }
+
+    /**
+     * Creates a new synchronous event manager.
+     *
+     * @param idleStrategy The strategy to use while the event queue is empty
+     */
+    public SyncEventManager(@Nonnull IdleStrategy idleStrategy) {
+        this(idleStrategy, System.out);
+    }
+
+    /**
+     * Creates a new synchronous event manager.
+     *
+     * @param idleStrategy The strategy to use while the event queue is empty
+     * @param printStream  The print stream to print error messages to
+     */
+    public SyncEventManager(@Nonnull IdleStrategy idleStrategy, @Nonnull PrintStream printStream) {
+        super("SyncEventManager", idleStrategy, printStream);
+    }
+
+    /**
+     * Creates a new synchronous event manager with a bounded event queue.
+     *
+     * @param capacity The maximum number of pending events
+     * @param policy   The policy to apply to events called while the queue is full
+     */
+    public SyncEventManager(int capacity, @Nonnull OverflowPolicy policy) {
+        this(new BoundedEventQueue(capacity, policy), new BackoffIdleStrategy(), System.out);
+    }
+
+    /**
+     * Creates a new synchronous event manager. The event queue must not be shared.
+     *
+     * @param eventQueue   The event queue of this manager
+     * @param idleStrategy The strategy to use while the event queue is empty
+     * @param printStream  The print stream to print error messages to
+     */
+    public SyncEventManager(
+            @Nonnull EventQueue eventQueue,
+            @Nonnull IdleStrategy idleStrategy,
+            @Nonnull PrintStream printStream
+    ) {
+        super("SyncEventManager", eventQueue, new HandlerRegistry(), idleStrategy, printStream);
+    }
 }
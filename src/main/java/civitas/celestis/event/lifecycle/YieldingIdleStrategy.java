@@ -0,0 +1,82 @@
+package civitas.celestis.event.lifecycle;
+
+/**
+ * An idle strategy which spins for a fixed number of iterations, then yields
+ * the processor to other threads on every subsequent idle iteration.
+ *
+ * @see IdleStrategy
+ */
+public class YieldingIdleStrategy implements IdleStrategy {
+    //
+    // Constants
+    //
+
+    /**
+     * The default number of iterations to spin before yielding.
+     */
+    public static final int DEFAULT_SPINS = 100;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new yielding idle strategy with the default number of spins.
+     */
+    public YieldingIdleStrategy() {
+        this(DEFAULT_SPINS);
+    }
+
+    /**
+     * Creates a new yielding idle strategy.
+     *
+     * @param maxSpins The number of iterations to spin before yielding
+     */
+    public YieldingIdleStrategy(int maxSpins) {
+        if (maxSpins < 0) {
+            throw new IllegalArgumentException("The number of spins cannot be negative.");
+        }
+
+        this.maxSpins = maxSpins;
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The number of iterations to spin before yielding.
+     */
+    private final int maxSpins;
+
+    /**
+     * The number of consecutive idle iterations.
+     */
+    private int spins = 0;
+
+    //
+    // Methods
+    //
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void idle() {
+        if (spins < maxSpins) {
+            spins++;
+            Thread.onSpinWait();
+            return;
+        }
+
+        Thread.yield();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        spins = 0;
+    }
+}
@@ -0,0 +1,82 @@
+package civitas.celestis.event.metrics;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The live metrics of the event queues of an event manager. Enqueued and dequeued events
+ * are counted without locks or allocation, and can be read from any thread. Metrics of
+ * individual handlers are held by their {@link HandlerMetrics}.
+ *
+ * @see EventSnapshot
+ */
+public final class EventMetrics {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new empty set of event metrics.
+     */
+    public EventMetrics() {
+        this.enqueued = new LongAdder();
+        this.dequeued = new LongAdder();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The number of events accepted by the event queues.
+     */
+    @Nonnull
+    private final LongAdder enqueued;
+
+    /**
+     * The number of events removed from the event queues for processing.
+     */
+    @Nonnull
+    private final LongAdder dequeued;
+
+    //
+    // Methods
+    //
+
+    /**
+     * Records events which were accepted by an event queue.
+     *
+     * @param count The number of accepted events
+     */
+    public void enqueued(long count) {
+        enqueued.add(count);
+    }
+
+    /**
+     * Records events which were removed from an event queue for processing.
+     *
+     * @param count The number of removed events
+     */
+    public void dequeued(long count) {
+        dequeued.add(count);
+    }
+
+    /**
+     * Returns the number of events accepted by the event queues.
+     *
+     * @return The number of enqueued events
+     */
+    public long getEnqueued() {
+        return enqueued.sum();
+    }
+
+    /**
+     * Returns the number of events removed from the event queues for processing.
+     *
+     * @return The number of dequeued events
+     */
+    public long getDequeued() {
+        return dequeued.sum();
+    }
+}
@@ -0,0 +1,82 @@
+package civitas.celestis.event.metrics;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.List;
+
+/**
+ * An immutable snapshot of the metrics of an event manager. Rates are derived by
+ * comparing two snapshots of the same event manager. Every event accepted by the event
+ * queues is counted as either enqueued or superseded, and every enqueued event is either
+ * pending or dequeued, so that {@code enqueued - dequeued} approximates the queue depth.
+ *
+ * @param timestamp  The value of {@link System#nanoTime()} when the snapshot was taken
+ * @param queueDepth The number of events pending in the event queues
+ * @param enqueued   The number of events accepted by the event queues, excluding superseded events
+ * @param dequeued   The number of events removed from the event queues for processing
+ * @param superseded The number of events accepted by the event queues which were merged into,
+ *                   replaced by, or discarded to make space for another event before being processed
+ * @param lanes      The snapshots of every lane of the event queues, starting from the lane of the highest priority
+ * @param handlers   The snapshots of every registered handler, in order of execution priority
+ * @see EventMetrics
+ * @see HandlerSnapshot
+ * @see LaneSnapshot
+ */
+public record EventSnapshot(
+        long timestamp,
+        int queueDepth,
+        long enqueued,
+        long dequeued,
+        long superseded,
+        @Nonnull List<LaneSnapshot> lanes,
+        @Nonnull List<HandlerSnapshot> handlers
+) {
+    /**
+     * Creates a new event snapshot. The lists of lanes and handlers are copied.
+     *
+     * @param timestamp  The value of {@link System#nanoTime()} when the snapshot was taken
+     * @param queueDepth The number of events pending in the event queues
+     * @param enqueued   The number of events accepted by the event queues, excluding superseded events
+     * @param dequeued   The number of events removed from the event queues for processing
+     * @param superseded The number of events accepted by the event queues which were merged into,
+     *                   replaced by, or discarded to make space for another event before being processed
+     * @param lanes      The snapshots of every lane of the event queues, starting from the lane of the highest priority
+     * @param handlers   The snapshots of every registered handler, in order of execution priority
+     */
+    public EventSnapshot {
+        lanes = List.copyOf(lanes);
+        handlers = List.copyOf(handlers);
+    }
+
+    /**
+     * Returns the rate at which events were enqueued since the provided earlier snapshot.
+     *
+     * @param previous The earlier snapshot of the same event manager
+     * @return The number of enqueued events per second
+     */
+    public double enqueueRate(@Nonnull EventSnapshot previous) {
+        return rate(enqueued - previous.enqueued, previous);
+    }
+
+    /**
+     * Returns the rate at which events were dequeued since the provided earlier snapshot.
+     *
+     * @param previous The earlier snapshot of the same event manager
+     * @return The number of dequeued events per second
+     */
+    public double dequeueRate(@Nonnull EventSnapshot previous) {
+        return rate(dequeued - previous.dequeued, previous);
+    }
+
+    /**
+     * Returns the rate of the provided number of events since the provided earlier snapshot.
+     *
+     * @param count    The number of events
+     * @param previous The earlier snapshot
+     * @return The number of events per second
+     */
+    private double rate(long count, @Nonnull EventSnapshot previous) {
+        final long elapsed = timestamp - previous.timestamp;
+        return elapsed <= 0 ? 0 : count * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,78 @@
+package civitas.celestis.event.metrics;
+
+import civitas.celestis.event.HandlerReference;
+import jakarta.annotation.Nonnull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The live metrics of one event handler. Every {@link HandlerReference} owns one instance,
+ * which is recorded to by the event processor whenever the handler is invoked. Recording
+ * requires no locks or allocation, and the metrics can be read from any thread.
+ *
+ * @see HandlerReference#metrics()
+ * @see HandlerSnapshot
+ */
+public final class HandlerMetrics {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new empty set of handler metrics.
+     */
+    public HandlerMetrics() {
+        this.invocations = new LongAdder();
+        this.exceptions = new LongAdder();
+        this.latency = new LatencyHistogram();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The number of invocations of the handler.
+     */
+    @Nonnull
+    private final LongAdder invocations;
+
+    /**
+     * The number of invocations which threw an exception.
+     */
+    @Nonnull
+    private final LongAdder exceptions;
+
+    /**
+     * The histogram of invocation latencies.
+     */
+    @Nonnull
+    private final LatencyHistogram latency;
+
+    //
+    // Methods
+    //
+
+    /**
+     * Records an invocation of the handler.
+     *
+     * @param nanos  The duration of the invocation in nanoseconds
+     * @param failed Whether the invocation threw an exception
+     */
+    public void record(long nanos, boolean failed) {
+        invocations.increment();
+        latency.record(nanos);
+        if (failed) exceptions.increment();
+    }
+
+    /**
+     * Returns a snapshot of these metrics.
+     *
+     * @param handler The handler these metrics belong to
+     * @return The snapshot of these metrics
+     */
+    @Nonnull
+    public HandlerSnapshot snapshot(@Nonnull HandlerReference handler) {
+        return new HandlerSnapshot(handler, invocations.sum(), exceptions.sum(), latency.snapshot());
+    }
+}
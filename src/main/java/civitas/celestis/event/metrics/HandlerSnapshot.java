@@ -0,0 +1,20 @@
+package civitas.celestis.event.metrics;
+
+import civitas.celestis.event.HandlerReference;
+import jakarta.annotation.Nonnull;
+
+/**
+ * An immutable snapshot of the metrics of one event handler.
+ *
+ * @param handler     The handler the metrics belong to
+ * @param invocations The number of invocations of the handler
+ * @param exceptions  The number of invocations which threw an exception
+ * @param latency     The histogram of invocation latencies
+ * @see HandlerMetrics
+ */
+public record HandlerSnapshot(
+        @Nonnull HandlerReference handler,
+        long invocations,
+        long exceptions,
+        @Nonnull HistogramSnapshot latency
+) {}
@@ -0,0 +1,132 @@
+package civitas.celestis.event.metrics;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of a {@link LatencyHistogram}.
+ *
+ * @param counts The number of latencies recorded per bucket
+ * @param sum    The sum of every recorded latency in nanoseconds
+ * @see LatencyHistogram
+ */
+public record HistogramSnapshot(@Nonnull long[] counts, long sum) {
+    /**
+     * Creates a new histogram snapshot. The array is copied.
+     *
+     * @param counts The number of latencies recorded per bucket
+     * @param sum    The sum of every recorded latency in nanoseconds
+     */
+    public HistogramSnapshot(@Nonnull long[] counts, long sum) {
+        this.counts = counts.clone();
+        this.sum = sum;
+    }
+
+    /**
+     * Returns the number of latencies recorded per bucket. Bucket {@code i} counts
+     * the latencies in the range of {@code [2^(i-1), 2^i)} nanoseconds.
+     *
+     * @return A copy of the bucket counts of this snapshot
+     */
+    @Nonnull
+    @Override
+    public long[] counts() {
+        return counts.clone();
+    }
+
+    /**
+     * Returns the total number of recorded latencies.
+     *
+     * @return The number of recorded latencies
+     */
+    public long count() {
+        long count = 0;
+        for (final long c : counts) count += c;
+        return count;
+    }
+
+    /**
+     * Returns the mean of every recorded latency.
+     *
+     * @return The mean latency in nanoseconds, {@code 0} if no latencies were recorded
+     */
+    public double mean() {
+        final long count = count();
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns an upper bound of the provided percentile of the recorded latencies.
+     * The returned value is the upper bound of the bucket which contains the percentile,
+     * and is thus at most twice the actual latency.
+     *
+     * @param percentile The percentile to return, in the range of {@code [0, 1]}
+     * @return The upper bound of the percentile in nanoseconds, {@code 0} if no latencies were recorded
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("The percentile must be in the range of [0, 1].");
+        }
+
+        final long count = count();
+        if (count == 0) return 0;
+
+        final long target = Math.max(1, (long) Math.ceil(percentile * count));
+        long cumulative = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target) return LatencyHistogram.upperBoundOf(i);
+        }
+
+        return Long.MAX_VALUE;
+    }
+
+    //
+    // Equality
+    //
+
+    /**
+     * Checks for equality between this snapshot and the provided object.
+     *
+     * @param obj The object to compare to
+     * @return {@code true} if the other object is a snapshot with the same counts and sum
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof HistogramSnapshot other)) return false;
+        return sum == other.sum && Arrays.equals(counts, other.counts);
+    }
+
+    /**
+     * Returns the hash code of this snapshot.
+     *
+     * @return The hash code of this snapshot
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(counts) + Long.hashCode(sum);
+    }
+
+    //
+    // Serialization
+    //
+
+    /**
+     * Serializes this snapshot into a string.
+     *
+     * @return The string representation of this snapshot
+     */
+    @Nonnull
+    @Override
+    public String toString() {
+        return "HistogramSnapshot{" +
+                "count=" + count() +
+                ", mean=" + mean() +
+                ", p50=" + percentile(0.5) +
+                ", p99=" + percentile(0.99) +
+                "}";
+    }
+}
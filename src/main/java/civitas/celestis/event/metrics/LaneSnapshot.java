@@ -0,0 +1,35 @@
+package civitas.celestis.event.metrics;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * An immutable snapshot of the metrics of one lane of an event queue.
+ * Lane {@code 0} is the lane of the highest priority.
+ *
+ * @param lane     The index of the lane
+ * @param weight   The number of events served from the lane per round
+ * @param enqueued The number of events accepted by the lane
+ * @param dequeued The number of events removed from the lane for processing
+ * @see EventSnapshot#lanes()
+ */
+public record LaneSnapshot(int lane, int weight, long enqueued, long dequeued) {
+    /**
+     * Returns the number of events pending in the lane.
+     *
+     * @return The approximate number of pending events
+     */
+    public long depth() {
+        return Math.max(enqueued - dequeued, 0);
+    }
+
+    /**
+     * Combines this snapshot with the snapshot of the same lane of another queue.
+     *
+     * @param other The snapshot of the same lane of another queue
+     * @return The combined snapshot
+     */
+    @Nonnull
+    public LaneSnapshot plus(@Nonnull LaneSnapshot other) {
+        return new LaneSnapshot(lane, weight, enqueued + other.enqueued, dequeued + other.dequeued);
+    }
+}
@@ -0,0 +1,110 @@
+package civitas.celestis.event.metrics;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds. Latencies are recorded into
+ * logarithmic buckets, where bucket {@code i} counts the latencies in the range of
+ * {@code [2^(i-1), 2^i)}. This bounds the relative error of every percentile to a factor
+ * of two, while requiring no allocation and only two atomic increments per recording.
+ * <p>
+ * The histogram can be recorded to and read from any thread at the same time. As the
+ * buckets are read individually, a snapshot taken while latencies are being recorded
+ * may be off by the number of concurrent recordings.
+ * </p>
+ *
+ * @see HistogramSnapshot
+ */
+public final class LatencyHistogram {
+    //
+    // Constants
+    //
+
+    /**
+     * The number of buckets of a histogram. This covers every non-negative {@code long}.
+     */
+    public static final int BUCKETS = 64;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new empty latency histogram.
+     */
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.sum = new LongAdder();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The number of latencies recorded per bucket.
+     */
+    @Nonnull
+    private final AtomicLongArray buckets;
+
+    /**
+     * The sum of every recorded latency in nanoseconds.
+     */
+    @Nonnull
+    private final LongAdder sum;
+
+    //
+    // Methods
+    //
+
+    /**
+     * Records a latency to this histogram. Negative latencies are recorded as zero.
+     *
+     * @param nanos The latency to record in nanoseconds
+     */
+    public void record(long nanos) {
+        final long latency = Math.max(nanos, 0);
+
+        buckets.getAndIncrement(bucketOf(latency));
+        sum.add(latency);
+    }
+
+    /**
+     * Returns a snapshot of the current state of this histogram.
+     *
+     * @return The snapshot of this histogram
+     */
+    @Nonnull
+    public HistogramSnapshot snapshot() {
+        final long[] counts = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+
+        return new HistogramSnapshot(counts, sum.sum());
+    }
+
+    /**
+     * Returns the index of the bucket the provided latency is recorded to.
+     *
+     * @param nanos The non-negative latency in nanoseconds
+     * @return The index of the bucket of the latency
+     */
+    static int bucketOf(long nanos) {
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(nanos), BUCKETS - 1);
+    }
+
+    /**
+     * Returns the exclusive upper bound of the latencies recorded to the provided bucket.
+     *
+     * @param bucket The index of the bucket
+     * @return The exclusive upper bound of the bucket in nanoseconds
+     */
+    static long upperBoundOf(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+}
@@ -0,0 +1,334 @@
+package civitas.celestis.event.processing;
+
+import civitas.celestis.event.HandlerTable;
+import jakarta.annotation.Nonnull;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An annotation processor which generates a {@link HandlerTable} for every listener class
+ * which declares {@link civitas.celestis.event.EventHandler EventHandler} methods. The generated
+ * table resolves the handler methods once when it is loaded, and dispatches events to them
+ * through lambdas which directly call the handler methods.
+ * <p>
+ * Private handler methods cannot be called from the generated table, and are compiled into
+ * a dispatcher at runtime instead. No table is generated for classes which cannot be accessed
+ * from their own package (e.g. private, local or anonymous classes), or whose handlers take an
+ * inaccessible event type. Such classes keep using the reflective scan of
+ * {@link civitas.celestis.event.Listener#getHandlerReferences() Listener#getHandlerReferences()}.
+ * </p>
+ * <p>
+ * The processor is registered as a service, and is therefore discovered automatically by
+ * the compiler of any project which has this library on its class path.
+ * </p>
+ *
+ * @see HandlerTable
+ */
+@SupportedAnnotationTypes(HandlerTableProcessor.EVENT_HANDLER)
+public class HandlerTableProcessor extends AbstractProcessor {
+    //
+    // Constants
+    //
+
+    /**
+     * The qualified name of the event handler annotation.
+     */
+    static final String EVENT_HANDLER = "civitas.celestis.event.EventHandler";
+
+    /**
+     * The qualified name of the listener interface.
+     */
+    private static final String LISTENER = "civitas.celestis.event.Listener";
+
+    /**
+     * The qualified name of the handleable interface.
+     */
+    private static final String HANDLEABLE = "civitas.celestis.event.Handleable";
+
+    //
+    // Methods
+    //
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param annotations {@inheritDoc}
+     * @param round       {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean process(@Nonnull Set<? extends TypeElement> annotations, @Nonnull RoundEnvironment round) {
+        final TypeElement annotation = processingEnv.getElementUtils().getTypeElement(EVENT_HANDLER);
+        if (annotation == null || !annotations.contains(annotation)) return false;
+
+        // Group the handler methods by their declaring class, preserving declaration order
+        final Map<TypeElement, List<ExecutableElement>> handlers = new LinkedHashMap<>();
+
+        for (final Element element : round.getElementsAnnotatedWith(annotation)) {
+            if (element.getKind() != ElementKind.METHOD) continue;
+            if (!(element.getEnclosingElement() instanceof TypeElement type)) continue;
+
+            handlers.computeIfAbsent(type, t -> new ArrayList<>()).add((ExecutableElement) element);
+        }
+
+        handlers.forEach(this::generate);
+        return false;
+    }
+
+    //
+    // Generation
+    //
+
+    /**
+     * Generates the handler table of a listener class.
+     *
+     * @param type    The listener class
+     * @param methods The handler methods declared by the class
+     */
+    private void generate(@Nonnull TypeElement type, @Nonnull List<ExecutableElement> methods) {
+        if (!isTableable(type)) return;
+
+        final List<ExecutableElement> valid = new ArrayList<>();
+
+        for (final ExecutableElement method : methods) {
+            if (!isValidHandler(method)) {
+                processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.WARNING,
+                        "This method is not a valid event handler, and will be ignored.",
+                        method
+                );
+                continue;
+            }
+
+            // The generated table must be able to name the parameter type of every handler
+            if (!isAccessible(parameterOf(method))) return;
+            valid.add(method);
+        }
+
+        if (valid.isEmpty()) return;
+
+        final String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(type) + HandlerTable.SUFFIX;
+        final String simpleName = pkg.isEmpty() ? binaryName : binaryName.substring(pkg.length() + 1);
+
+        try (final Writer writer = processingEnv.getFiler().createSourceFile(binaryName, type).openWriter()) {
+            writer.write(source(pkg, simpleName, type, valid));
+        } catch (final IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR,
+                    "Failed to generate the handler table of this listener: " + e.getMessage(),
+                    type
+            );
+        }
+    }
+
+    /**
+     * Writes the source code of a handler table.
+     *
+     * @param pkg        The package of the listener class
+     * @param simpleName The simple name of the handler table
+     * @param type       The listener class
+     * @param methods    The valid handler methods of the listener class
+     * @return The source code of the handler table
+     */
+    @Nonnull
+    private String source(
+            @Nonnull String pkg,
+            @Nonnull String simpleName,
+            @Nonnull TypeElement type,
+            @Nonnull List<ExecutableElement> methods
+    ) {
+        final String listener = type.getQualifiedName().toString();
+        final StringBuilder out = new StringBuilder();
+
+        if (!pkg.isEmpty()) out.append("package ").append(pkg).append(";\n\n");
+
+        out.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        out.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        out.append("public final class ").append(simpleName)
+                .append(" implements civitas.celestis.event.HandlerTable<").append(listener).append("> {\n");
+
+        out.append("    private static final java.lang.reflect.Method[] METHODS;\n");
+        out.append("    private static final civitas.celestis.event.HandlerDispatcher[] DISPATCHERS;\n\n");
+
+        // Resolve the handler methods once
+        out.append("    static {\n");
+        out.append("        try {\n");
+        out.append("            METHODS = new java.lang.reflect.Method[] {\n");
+
+        for (final ExecutableElement method : methods) {
+            out.append("                ").append(listener).append(".class.getDeclaredMethod(\"")
+                    .append(method.getSimpleName()).append("\", ")
+                    .append(erasureOf(parameterOf(method))).append(".class),\n");
+        }
+
+        out.append("            };\n");
+        out.append("        } catch (final NoSuchMethodException e) {\n");
+        out.append("            throw new ExceptionInInitializerError(e);\n");
+        out.append("        }\n\n");
+
+        // Directly call non-private handler methods, and compile private ones
+        out.append("        DISPATCHERS = new civitas.celestis.event.HandlerDispatcher[] {\n");
+
+        for (int i = 0; i < methods.size(); i++) {
+            final ExecutableElement method = methods.get(i);
+            out.append("                ");
+
+            if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                out.append("civitas.celestis.event.Dispatchers.compile(METHODS[").append(i).append("]),\n");
+                continue;
+            }
+
+            final String target = method.getModifiers().contains(Modifier.STATIC) ? listener : "((" + listener + ") l)";
+
+            out.append("(l, e) -> ").append(target).append('.').append(method.getSimpleName())
+                    .append("((").append(erasureOf(parameterOf(method))).append(") e),\n");
+        }
+
+        out.append("        };\n");
+        out.append("    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public java.util.List<civitas.celestis.event.HandlerReference> getHandlerReferences(")
+                .append(listener).append(" listener) {\n");
+        out.append("        final java.util.List<civitas.celestis.event.HandlerReference> handlers = ")
+                .append("new java.util.ArrayList<>(").append(methods.size()).append(");\n\n");
+        out.append("        for (int i = 0; i < METHODS.length; i++) {\n");
+        out.append("            handlers.add(new civitas.celestis.event.HandlerReference(listener, METHODS[i], DISPATCHERS[i]));\n");
+        out.append("        }\n\n");
+        out.append("        return handlers;\n");
+        out.append("    }\n");
+        out.append("}\n");
+
+        return out.toString();
+    }
+
+    //
+    // Validation
+    //
+
+    /**
+     * Checks whether a handler table can be generated for the provided class. The class must
+     * be a listener, and must be accessible from a class in the same package.
+     *
+     * @param type The class to check
+     * @return {@code true} if a handler table can be generated for the class
+     */
+    private boolean isTableable(@Nonnull TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.ENUM
+                && type.getKind() != ElementKind.RECORD) return false;
+
+        final TypeElement listener = processingEnv.getElementUtils().getTypeElement(LISTENER);
+        if (listener == null) return false;
+
+        final TypeMirror erasure = processingEnv.getTypeUtils().erasure(type.asType());
+        if (!processingEnv.getTypeUtils().isAssignable(erasure, listener.asType())) return false;
+
+        return isAccessible(erasure);
+    }
+
+    /**
+     * Checks whether a method is a valid event handler. Valid handlers take a single parameter,
+     * which is either a {@code Handleable}, or a {@link List} of {@code Handleable}s.
+     *
+     * @param method The method to check
+     * @return {@code true} if the method is a valid event handler
+     */
+    private boolean isValidHandler(@Nonnull ExecutableElement method) {
+        if (method.getParameters().size() != 1) return false;
+
+        final TypeElement handleable = processingEnv.getElementUtils().getTypeElement(HANDLEABLE);
+        if (handleable == null) return false;
+
+        final TypeMirror parameter = parameterOf(method);
+        final TypeMirror target = processingEnv.getTypeUtils().erasure(handleable.asType());
+
+        if (processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(parameter), target)) {
+            return true;
+        }
+
+        // Resolve the element type of batch handlers (e.g. List<E> or List<? extends E>)
+        if (!(parameter instanceof DeclaredType list)) return false;
+        if (!((TypeElement) list.asElement()).getQualifiedName().contentEquals("java.util.List")) return false;
+        if (list.getTypeArguments().size() != 1) return false;
+
+        TypeMirror element = list.getTypeArguments().get(0);
+        if (element instanceof WildcardType wildcard) element = wildcard.getExtendsBound();
+
+        // Only class types can be resolved to an event type at runtime
+        if (element == null || element.getKind() != TypeKind.DECLARED) return false;
+        return processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(element), target);
+    }
+
+    /**
+     * Checks whether the erasure of a type can be named from any class in the same package.
+     *
+     * @param type The type to check
+     * @return {@code true} if the type can be named
+     */
+    private boolean isAccessible(@Nonnull TypeMirror type) {
+        final TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+        if (!(erasure instanceof DeclaredType declared)) return false;
+
+        for (Element element = declared.asElement(); element instanceof TypeElement t; element = t.getEnclosingElement()) {
+            if (t.getModifiers().contains(Modifier.PRIVATE)) return false;
+            if (t.getNestingKind() == NestingKind.LOCAL || t.getNestingKind() == NestingKind.ANONYMOUS) return false;
+        }
+
+        return true;
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Returns the type of the sole parameter of a handler method.
+     *
+     * @param method The handler method
+     * @return The parameter type of the method
+     */
+    @Nonnull
+    private static TypeMirror parameterOf(@Nonnull ExecutableElement method) {
+        return method.getParameters().get(0).asType();
+    }
+
+    /**
+     * Returns the canonical name of the erasure of a type. The type must be a declared type.
+     *
+     * @param type The type of which to get the erasure of
+     * @return The canonical name of the erasure
+     */
+    @Nonnull
+    private String erasureOf(@Nonnull TypeMirror type) {
+        final DeclaredType erasure = (DeclaredType) processingEnv.getTypeUtils().erasure(type);
+        return ((TypeElement) erasure.asElement()).getQualifiedName().toString();
+    }
+}
@@ -0,0 +1,41 @@
+package civitas.celestis.exception.event;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.Serial;
+
+/**
+ * An exception which is thrown when an event is called to a direct event manager
+ * from within its handlers, and the nesting of calls has exceeded the depth limit
+ * of the event manager.
+ */
+public class EventDepthException extends IllegalStateException {
+    //
+    // Constants
+    //
+
+    /**
+     * The serial version UID of this class.
+     */
+    @Serial
+    private static final long serialVersionUID = 0L;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new event depth exception with no message.
+     */
+    public EventDepthException() {
+    }
+
+    /**
+     * Creates a new event depth exception.
+     *
+     * @param message The message containing information about this exception
+     */
+    public EventDepthException(@Nonnull String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,40 @@
+package civitas.celestis.exception.event;
+
+import jakarta.annotation.Nonnull;
+
+import java.io.Serial;
+
+/**
+ * An exception which is thrown when an event is offered to a bounded event queue
+ * which has reached its capacity, and is configured to reject overflowing events.
+ */
+public class EventQueueOverflowException extends IllegalStateException {
+    //
+    // Constants
+    //
+
+    /**
+     * The serial version UID of this class.
+     */
+    @Serial
+    private static final long serialVersionUID = 0L;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new event queue overflow exception with no message.
+     */
+    public EventQueueOverflowException() {
+    }
+
+    /**
+     * Creates a new event queue overflow exception.
+     *
+     * @param message The message containing information about this exception
+     */
+    public EventQueueOverflowException(@Nonnull String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,54 @@
+package civitas.celestis.task;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A task which is scheduled with nanosecond precision. Precise tasks are provided with
+ * both the delta since their last execution, and their lateness, which is the duration
+ * between their scheduled deadline and the actual start of the execution.
+ * <p>
+ * When registered to a scheduler which does not support precise tasks, a precise task
+ * is executed through {@link #execute(long)}, with a lateness of zero.
+ * </p>
+ *
+ * @see Task
+ * @see TimingMode
+ */
+public interface PreciseTask extends Task {
+    //
+    // Execution
+    //
+
+    /**
+     * Executes this task.
+     *
+     * @param delta    The duration between the last execution and now in nanoseconds
+     * @param lateness The duration between the scheduled deadline and now in nanoseconds
+     */
+    void execute(long delta, long lateness);
+
+    /**
+     * {@inheritDoc}
+     * This delegates to {@link #execute(long, long)} with a lateness of zero.
+     *
+     * @param delta {@inheritDoc}
+     */
+    @Override
+    default void execute(long delta) {
+        execute(TimeUnit.MILLISECONDS.toNanos(delta), 0);
+    }
+
+    //
+    // Interval
+    //
+
+    /**
+     * Returns the interval of this task in nanoseconds.
+     * By default, this converts {@link #interval()} to nanoseconds.
+     *
+     * @return The interval of this task in nanoseconds
+     */
+    default long intervalNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(interval());
+    }
+}
@@ -12,6 +12,13 @@ import jakarta.annotation.Nonnull;
  * interface declarable by use of a lambda expression. This is an intended feature,
  * and this will continue to be the only abstract method in the future.
  * </p>
+ * <p>
+ * Tasks which require sub-millisecond precision, or the lateness of each
+ * execution, should implement {@link PreciseTask}.
+ * </p>
+ *
+ * @see PreciseTask
+ * @see TimingMode
  */
 public interface Task {
     //
@@ -43,6 +50,17 @@ public interface Task {
         return DEFAULT_INTERVAL;
     }
 
+    /**
+     * Returns the mode in which the deadlines of this task are determined.
+     * By default, tasks are scheduled in {@link TimingMode#FIXED_DELAY fixed-delay} mode.
+     *
+     * @return The timing mode of this task
+     */
+    @Nonnull
+    default TimingMode timingMode() {
+        return TimingMode.FIXED_DELAY;
+    }
+
     //
     // Events
     //
@@ -0,0 +1,25 @@
+package civitas.celestis.task;
+
+/**
+ * The mode in which a scheduler determines the next deadline of a task after each execution.
+ *
+ * @see Task#timingMode()
+ */
+public enum TimingMode {
+    /**
+     * The next deadline is one interval after the actual start of the previous execution.
+     * Lateness of an execution delays every following execution, which makes the schedule
+     * drift, but guarantees a full interval between the starts of two executions.
+     * <p>
+     * This is the default mode, and the mode in which tasks have always been scheduled.
+     * </p>
+     */
+    FIXED_DELAY,
+
+    /**
+     * The next deadline is one interval after the previous deadline. The schedule is anchored
+     * to the registration of the task, and does not drift. If an execution is late by more than
+     * an interval, the missed executions are caught up on as soon as possible.
+     */
+    FIXED_RATE
+}
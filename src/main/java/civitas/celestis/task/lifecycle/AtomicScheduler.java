@@ -1,22 +1,32 @@
 package civitas.celestis.task.lifecycle;
 
 import civitas.celestis.task.Task;
+import civitas.celestis.task.metrics.SchedulerSnapshot;
+import civitas.celestis.task.metrics.TaskSnapshot;
+import civitas.celestis.task.metrics.ThreadSnapshot;
 import jakarta.annotation.Nonnull;
 
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedDeque;
 
 /**
  * An asynchronous multithreaded scheduler with multiple threads, which each have
- * their own list of tasks and map of execution times. Atomic schedulers are atomized
+ * their own list of task handles. Atomic schedulers are atomized
  * in that the failure of one thread will not interfere with the operation of other threads.
  * <p>
  * While atomic schedulers can be resilient compared to other asynchronous schedulers,
  * the added overhead of managing a queue of scheduler threads can make it slower than
  * other asynchronous implementations, especially if tasks are registered frequently.
  * </p>
+ * <p>
+ * Tasks are pinned to the thread they were assigned to. For workloads with uneven
+ * tasks, {@link WorkStealingScheduler} lets idle threads take over due tasks instead.
+ * </p>
  *
  * @see Scheduler
+ * @see WorkStealingScheduler
  */
 public class AtomicScheduler implements Scheduler {
     //
@@ -135,6 +145,25 @@ public class AtomicScheduler implements Scheduler {
         threads.forEach(t -> t.unregister(tasks));
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public SchedulerSnapshot getMetrics() {
+        final List<TaskSnapshot> tasks = new ArrayList<>();
+        final List<ThreadSnapshot> snapshots = new ArrayList<>(threads.size());
+
+        for (final SchedulerThread thread : threads) {
+            tasks.addAll(thread.getTaskMetrics());
+            snapshots.add(thread.getThreadMetrics());
+        }
+
+        return new SchedulerSnapshot(System.nanoTime(), tasks, snapshots);
+    }
+
     /**
      * {@inheritDoc}
      */
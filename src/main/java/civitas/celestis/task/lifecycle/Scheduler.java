@@ -1,6 +1,7 @@
 package civitas.celestis.task.lifecycle;
 
 import civitas.celestis.task.Task;
+import civitas.celestis.task.metrics.SchedulerSnapshot;
 import civitas.celestis.util.Module;
 import jakarta.annotation.Nonnull;
 
@@ -70,4 +71,14 @@ public interface Scheduler extends Module {
      * @param tasks The iterable object containing the tasks to unregister
      */
     void unregister(@Nonnull Iterable<? extends Task> tasks);
+
+    /**
+     * Takes a snapshot of the metrics of this scheduler, including the execution times,
+     * lateness, overruns and exceptions of every registered task, and the utilization
+     * of every thread of this scheduler. This can be called from any thread.
+     *
+     * @return The snapshot of the metrics of this scheduler
+     */
+    @Nonnull
+    SchedulerSnapshot getMetrics();
 }
@@ -1,15 +1,39 @@
 package civitas.celestis.task.lifecycle;
 
 import civitas.celestis.task.Task;
+import civitas.celestis.task.metrics.SchedulerSnapshot;
+import civitas.celestis.task.metrics.TaskSnapshot;
+import civitas.celestis.task.metrics.ThreadMetrics;
+import civitas.celestis.task.metrics.ThreadSnapshot;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 
 import java.io.PrintStream;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * A thread which handles the registration and execution of tasks.
  * This is a strict scheduler, meaning it has no delay between each iteration
  * of looping through the list of tasks allocated to this thread.
+ * <p>
+ * Each registered task is represented by a handle. Handles are registered and unregistered
+ * in constant time from any thread, and are handed over to this thread through a lock-free
+ * queue. This thread keeps its handles in an intrusive linked list, which it iterates
+ * without copying or allocating.
+ * </p>
+ * <p>
+ * Time is measured with {@link System#nanoTime()}, and each task is executed once
+ * the deadline determined by its {@link civitas.celestis.task.TimingMode timing mode}
+ * has been reached.
+ * </p>
+ *
+ * @see TaskTimer
  */
 public class SchedulerThread extends Thread implements Scheduler {
     //
@@ -39,97 +63,110 @@ public class SchedulerThread extends Thread implements Scheduler {
      * @param printStream The print stream to print error messages to
      */
     public SchedulerThread(@Nonnull String name, @Nonnull PrintStream printStream) {
+        super(name);
 
-        /*
-         * Since this constructor is used to create a scheduler thread which uses an independent
-         * task list and execution time map, the list and map instances do not
-         * have to be concurrent. This ensures that there is no unnecessary overhead.
-         */
-
-        this(name, new ArrayList<>(), new HashMap<>(), printStream);
+        this.printStream = Objects.requireNonNull(printStream);
+        this.handles = new ConcurrentHashMap<>();
+        this.requests = new ConcurrentLinkedQueue<>();
+        this.metrics = new ThreadMetrics();
     }
 
+    //
+    // Variables
+    //
+
     /**
-     * Creates a new scheduler thread. If this scheduler shares the list
-     * of tasks and/or the map of execution times with another thread, the
-     * list and map instances must be thread-safe. They must also be mutable.
-     *
-     * @param name           The name of this thread
-     * @param tasks          The list of tasks allocated to this thread
-     * @param executionTimes The map of recent execution times
-     * @param printStream    The print stream to print error messages to
+     * The print stream to print error messages to.
      */
-    protected SchedulerThread(
-            @Nonnull String name,
-            @Nonnull List<Task> tasks,
-            @Nonnull Map<Task, Long> executionTimes,
-            @Nonnull PrintStream printStream
-    ) {
-        super(() -> {
+    @Nonnull
+    private final PrintStream printStream;
 
-            //
-            // START OF SCHEDULER THREAD
-            //
-            // Created: v0.4
-            // Modified: v0.4
-            //
+    /**
+     * The handles of the registered tasks, mapped by their task.
+     */
+    @Nonnull
+    private final Map<Task, Handle> handles;
 
-            // Enter infinite loop while thread is active
-            while (!Thread.interrupted()) {
+    /**
+     * The handles which were registered or unregistered since the last iteration.
+     */
+    @Nonnull
+    private final Queue<Handle> requests;
 
-                // Iterate through list of tasks
-                for (final Task task : List.copyOf(tasks)) {
+    /**
+     * The metrics of this thread.
+     */
+    @Nonnull
+    private final ThreadMetrics metrics;
 
-                    // Calculate the delta of this task
-                    final long now = System.currentTimeMillis();
-                    final long previous = executionTimes.getOrDefault(task, now);
-                    final long delta = now - previous;
+    /**
+     * The first handle of the list of handles allocated to this thread.
+     * Only accessed by this thread.
+     */
+    @Nullable
+    private Handle head = null;
 
-                    // Respect the task's interval
-                    if (delta < task.interval()) continue;
+    //
+    // Loop
+    //
 
-                    try {
+    /**
+     * Runs the loop of this scheduler. Each iteration applies pending requests, then
+     * executes every task whose deadline has been reached. The loop does not allocate.
+     */
+    @Override
+    public void run() {
 
-                        // Execute the task and keep time
-                        task.execute(delta);
-                        executionTimes.put(task, now);
+        //
+        // START OF SCHEDULER THREAD
+        //
+        // Created: v0.4
+        // Modified: v0.5
+        //
 
-                    } catch (final Throwable e) {
+        // Measure the utilization of this thread from the beginning of its loop
+        metrics.start();
 
-                        // Print errors to print stream
-                        e.printStackTrace(printStream);
+        // Enter infinite loop while thread is active
+        while (!Thread.interrupted()) {
 
-                    }
-                }
+            // Link or unlink the handles which were registered or unregistered
+            for (Handle handle = requests.poll(); handle != null; handle = requests.poll()) {
+                if (handle.cancelled) unlink(handle);
+                else link(handle);
             }
 
-            //
-            // END OF SCHEDULER THREAD
-            //
+            // Iterate through list of handles
+            for (Handle handle = head; handle != null; ) {
 
-        }, name);
+                // The next handle may only be unlinked by this loop
+                final Handle next = handle.next;
 
-        // Assign the variables
-        this.tasks = tasks;
-        this.executionTimes = executionTimes;
-    }
+                // Unlink tasks which were unregistered during this iteration
+                if (handle.cancelled) {
+                    unlink(handle);
+                    handle = next;
+                    continue;
+                }
 
+                // Respect the task's deadline
+                final long now = System.nanoTime();
 
-    //
-    // Variables
-    //
+                if (handle.timer.isDue(now)) {
 
-    /**
-     * The list of tasks.
-     */
-    @Nonnull
-    private final List<Task> tasks;
+                    // Execute the task and keep time, printing errors to print stream
+                    metrics.record(handle.timer.execute(now, printStream));
+                }
 
-    /**
-     * The map of execution times.
-     */
-    @Nonnull
-    private final Map<Task, Long> executionTimes;
+                handle = next;
+            }
+        }
+
+        //
+        // END OF SCHEDULER THREAD
+        //
+
+    }
 
     //
     // Methods
@@ -137,6 +174,7 @@ public class SchedulerThread extends Thread implements Scheduler {
 
     /**
      * {@inheritDoc}
+     * If the task is already registered to this scheduler, its previous registration is replaced.
      *
      * @param task The task to register to this scheduler
      */
@@ -144,9 +182,11 @@ public class SchedulerThread extends Thread implements Scheduler {
     public void register(@Nonnull Task task) {
         Objects.requireNonNull(task);
 
-        tasks.add(task);
-        executionTimes.put(task, System.currentTimeMillis());
+        final Handle handle = new Handle(new TaskTimer(task, System.nanoTime()));
+        final Handle previous = handles.put(task, handle);
+        if (previous != null) cancel(previous);
 
+        requests.add(handle);
         task.onRegistered(this);
     }
 
@@ -179,8 +219,8 @@ public class SchedulerThread extends Thread implements Scheduler {
     public void unregister(@Nonnull Task task) {
         Objects.requireNonNull(task);
 
-        tasks.remove(task);
-        executionTimes.remove(task);
+        final Handle handle = handles.remove(task);
+        if (handle != null) cancel(handle);
 
         task.onUnregistered(this);
     }
@@ -196,6 +236,40 @@ public class SchedulerThread extends Thread implements Scheduler {
         tasks.forEach(this::unregister);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public SchedulerSnapshot getMetrics() {
+        return new SchedulerSnapshot(System.nanoTime(), getTaskMetrics(), List.of(getThreadMetrics()));
+    }
+
+    /**
+     * Takes a snapshot of the metrics of this thread. This can be called from any thread.
+     *
+     * @return The snapshot of the metrics of this thread
+     */
+    @Nonnull
+    public ThreadSnapshot getThreadMetrics() {
+        return metrics.snapshot(getName());
+    }
+
+    /**
+     * Takes snapshots of the metrics of every task allocated to this thread.
+     * This can be called from any thread.
+     *
+     * @return The snapshots of the metrics of the tasks of this thread
+     */
+    @Nonnull
+    List<TaskSnapshot> getTaskMetrics() {
+        final List<TaskSnapshot> snapshots = new ArrayList<>(handles.size());
+        handles.values().forEach(handle -> snapshots.add(handle.timer.snapshot()));
+        return snapshots;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -211,4 +285,102 @@ public class SchedulerThread extends Thread implements Scheduler {
     public void terminate() {
         interrupt();
     }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Marks a handle as cancelled. Handles cancelled by other threads are handed over
+     * to this thread to be unlinked, while handles cancelled by this thread itself, such as
+     * by a task which unregisters itself during its execution, are unlinked upon being reached.
+     *
+     * @param handle The handle to cancel
+     */
+    private void cancel(@Nonnull Handle handle) {
+        handle.cancelled = true;
+        if (Thread.currentThread() != this) requests.add(handle);
+    }
+
+    /**
+     * Links a handle to the head of the list of handles, unless it is already linked.
+     *
+     * @param handle The handle to link
+     */
+    private void link(@Nonnull Handle handle) {
+        if (handle.linked) return;
+
+        handle.linked = true;
+        handle.previous = null;
+        handle.next = head;
+
+        if (head != null) head.previous = handle;
+        head = handle;
+    }
+
+    /**
+     * Unlinks a handle from the list of handles, if it is linked.
+     *
+     * @param handle The handle to unlink
+     */
+    private void unlink(@Nonnull Handle handle) {
+        if (!handle.linked) return;
+
+        if (handle.previous != null) handle.previous.next = handle.next;
+        else head = handle.next;
+
+        if (handle.next != null) handle.next.previous = handle.previous;
+
+        handle.linked = false;
+        handle.previous = null;
+        handle.next = null;
+    }
+
+    //
+    // Handles
+    //
+
+    /**
+     * The registration of a task to a scheduler thread. Handles are linked into an intrusive
+     * list which is only accessed by the scheduler thread, so that tasks can be linked and
+     * unlinked in constant time without allocation.
+     */
+    private static final class Handle {
+        /**
+         * Creates a new handle.
+         *
+         * @param timer The timer of the task of this handle
+         */
+        private Handle(@Nonnull TaskTimer timer) {
+            this.timer = timer;
+        }
+
+        /**
+         * The timer of the task of this handle.
+         */
+        @Nonnull
+        private final TaskTimer timer;
+
+        /**
+         * Whether the task has been unregistered.
+         */
+        private volatile boolean cancelled = false;
+
+        /**
+         * Whether this handle is linked into the list of handles.
+         */
+        private boolean linked = false;
+
+        /**
+         * The previous handle of the list.
+         */
+        @Nullable
+        private Handle previous;
+
+        /**
+         * The next handle of the list.
+         */
+        @Nullable
+        private Handle next;
+    }
 }
@@ -6,7 +6,7 @@ import java.io.PrintStream;
 
 /**
  * A synchronous scheduler with one processing thread, (the scheduler itself)
- * one list of tasks, and one map of execution times. All core logic is inherited
+ * and one list of task handles. All core logic is inherited
  * from {@link SchedulerThread}.
  *
  * @see Scheduler
@@ -0,0 +1,222 @@
+package civitas.celestis.task.lifecycle;
+
+import civitas.celestis.task.PreciseTask;
+import civitas.celestis.task.Task;
+import civitas.celestis.task.TimingMode;
+import civitas.celestis.task.metrics.TaskMetrics;
+import civitas.celestis.task.metrics.TaskSnapshot;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.PrintStream;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the time of a task registered to a scheduler. Timers measure time with
+ * {@link System#nanoTime()}, and determine the deadline of each execution
+ * according to the {@link TimingMode} of their task.
+ * <p>
+ * {@link PreciseTask Precise tasks} are provided with their delta and lateness in nanoseconds.
+ * Other tasks are provided with the number of millisecond boundaries crossed since their last
+ * execution, which keeps the sum of their deltas equal to the time elapsed since registration.
+ * </p>
+ * <p>
+ * Timers are not thread-safe, and must only be executed by one thread at a time.
+ * Their {@link TaskMetrics metrics} can be read from any thread.
+ * </p>
+ *
+ * @see Task
+ * @see TimingMode
+ */
+public final class TaskTimer {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new timer. The first deadline of the task is one interval after registration.
+     *
+     * @param task       The task to keep the time of
+     * @param registered The time at which the task was registered, in nanoseconds
+     */
+    TaskTimer(@Nonnull Task task, long registered) {
+        this.task = Objects.requireNonNull(task);
+        this.precise = task instanceof PreciseTask p ? p : null;
+        this.metrics = new TaskMetrics();
+        this.executed = registered;
+        this.deadline = registered + interval();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The task of this timer.
+     */
+    @Nonnull
+    private final Task task;
+
+    /**
+     * The task of this timer if it is precise, {@code null} otherwise.
+     */
+    @Nullable
+    private final PreciseTask precise;
+
+    /**
+     * The metrics of the task.
+     */
+    @Nonnull
+    private final TaskMetrics metrics;
+
+    /**
+     * The time at which the task was last executed, or registered, in nanoseconds.
+     */
+    private long executed;
+
+    /**
+     * The time at which the task is next due, in nanoseconds.
+     */
+    private long deadline;
+
+    //
+    // Getters
+    //
+
+    /**
+     * Returns the task of this timer.
+     *
+     * @return The task of this timer
+     */
+    @Nonnull
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * Returns the metrics of the task.
+     *
+     * @return The metrics of the task
+     */
+    @Nonnull
+    public TaskMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Takes a snapshot of the metrics of the task. This can be called from any thread.
+     *
+     * @return The snapshot of the metrics of the task
+     */
+    @Nonnull
+    public TaskSnapshot snapshot() {
+        return metrics.snapshot(task);
+    }
+
+    /**
+     * Returns the time at which the task was last executed, or registered.
+     *
+     * @return The time of the last execution in nanoseconds
+     */
+    public long getLastExecution() {
+        return executed;
+    }
+
+    /**
+     * Returns the time at which the task is next due.
+     *
+     * @return The next deadline in nanoseconds
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Checks if the task is due.
+     *
+     * @param now The current time in nanoseconds
+     * @return {@code true} if the deadline of the task has been reached
+     */
+    public boolean isDue(long now) {
+        return now - deadline >= 0;
+    }
+
+    //
+    // Execution
+    //
+
+    /**
+     * Executes the task, then determines its next deadline and records the execution
+     * to the metrics of the task. Exceptions thrown by the task are printed to the
+     * provided print stream.
+     *
+     * @param now         The current time in nanoseconds
+     * @param printStream The print stream to print exceptions to
+     * @return The execution time in nanoseconds
+     */
+    long execute(long now, @Nonnull PrintStream printStream) {
+        final long lateness = now - deadline;
+        boolean failed = false;
+
+        try {
+            if (precise != null) precise.execute(now - executed, lateness);
+            else task.execute(millis(now) - millis(executed));
+        } catch (final Throwable e) {
+            failed = true;
+            e.printStackTrace(printStream);
+        }
+
+        final long elapsed = System.nanoTime() - now;
+        final long interval = interval();
+
+        reschedule(now, interval);
+        metrics.record(elapsed, lateness, interval, failed);
+
+        return elapsed;
+    }
+
+    /**
+     * Determines the next deadline of the task after an execution which started at the provided time.
+     *
+     * @param now      The time at which the execution started, in nanoseconds
+     * @param interval The current interval of the task in nanoseconds
+     */
+    private void reschedule(long now, long interval) {
+        executed = now;
+
+        // A schedule of no interval cannot be caught up on
+        if (task.timingMode() == TimingMode.FIXED_RATE && interval > 0) {
+            deadline += interval;
+        } else {
+            deadline = now + interval;
+        }
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Returns the current interval of the task.
+     *
+     * @return The interval of the task in nanoseconds
+     */
+    private long interval() {
+        final long interval = precise != null
+                ? precise.intervalNanos()
+                : TimeUnit.MILLISECONDS.toNanos(task.interval());
+
+        return Math.max(interval, 0);
+    }
+
+    /**
+     * Returns the number of whole milliseconds of a time in nanoseconds.
+     *
+     * @param nanos The time in nanoseconds
+     * @return The time in milliseconds, rounded down
+     */
+    private static long millis(long nanos) {
+        return Math.floorDiv(nanos, 1_000_000L);
+    }
+}
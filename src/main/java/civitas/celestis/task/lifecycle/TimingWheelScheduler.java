@@ -0,0 +1,567 @@
+package civitas.celestis.task.lifecycle;
+
+import civitas.celestis.task.Task;
+import civitas.celestis.task.metrics.SchedulerSnapshot;
+import civitas.celestis.task.metrics.TaskSnapshot;
+import civitas.celestis.task.metrics.ThreadMetrics;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A synchronous scheduler which keeps its tasks in a hierarchical timing wheel. Each task is
+ * stored in the slot of the wheel which corresponds to its next deadline, so the scheduler only
+ * ever visits tasks which are due, and sleeps until the next deadline while no task is due.
+ * This makes the cost of an idle scheduler independent of the number of tasks it holds.
+ * <p>
+ * The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. A slot of the lowest level
+ * spans one millisecond, and a slot of each higher level spans an entire rotation of the level
+ * below it. Tasks are cascaded down to lower levels as their deadlines approach. Deadlines which
+ * lie beyond the span of the highest level are clamped, and re-evaluated once reached.
+ * </p>
+ * <p>
+ * Tasks follow the same contract as in {@link SchedulerThread}. Each task is executed once
+ * the deadline determined by its {@link TaskTimer timer} has been reached, and the interval of
+ * the task is re-evaluated after each execution. As the resolution of the wheel is one
+ * millisecond, deadlines are rounded up to the next millisecond, and tasks with an interval
+ * of zero are executed at most once per millisecond. Fixed-rate tasks which have fallen
+ * behind catch up with at most one execution per millisecond.
+ * </p>
+ * <p>
+ * Tasks can be registered and unregistered from any thread. Requests are handed over to the
+ * scheduler thread through a lock-free queue, and the scheduler thread is woken up to apply them.
+ * </p>
+ *
+ * @see Scheduler
+ * @see SchedulerThread
+ */
+public class TimingWheelScheduler extends Thread implements Scheduler {
+    //
+    // Constants
+    //
+
+    /**
+     * The number of bits of a tick which index the slots of a level.
+     */
+    private static final int SLOT_BITS = 6;
+
+    /**
+     * The number of slots per level. This must match the number of bits in a {@code long},
+     * as the occupancy of each level is tracked by a bitmap.
+     */
+    public static final int SLOTS = 1 << SLOT_BITS;
+
+    /**
+     * The number of levels of the wheel, which span approximately two years of milliseconds.
+     */
+    public static final int LEVELS = 6;
+
+    /**
+     * The number of ticks the highest level of the wheel spans.
+     */
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new timing wheel scheduler.
+     */
+    public TimingWheelScheduler() {
+        this("TimingWheelScheduler", System.out);
+    }
+
+    /**
+     * Creates a new timing wheel scheduler.
+     *
+     * @param name The name of this thread
+     */
+    public TimingWheelScheduler(@Nonnull String name) {
+        this(name, System.out);
+    }
+
+    /**
+     * Creates a new timing wheel scheduler.
+     *
+     * @param name        The name of this thread
+     * @param printStream The print stream to print error messages to
+     */
+    public TimingWheelScheduler(@Nonnull String name, @Nonnull PrintStream printStream) {
+        super(name);
+
+        this.printStream = Objects.requireNonNull(printStream);
+        this.origin = System.nanoTime();
+        this.slots = new Entry[LEVELS][SLOTS];
+        this.occupied = new long[LEVELS];
+        this.entries = new ConcurrentHashMap<>();
+        this.requests = new ConcurrentLinkedQueue<>();
+        this.metrics = new ThreadMetrics();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The print stream to print error messages to.
+     */
+    @Nonnull
+    private final PrintStream printStream;
+
+    /**
+     * The time at which tick {@code 0} of this wheel began, in nanoseconds.
+     */
+    private final long origin;
+
+    /**
+     * The heads of the linked lists of entries of each slot of each level.
+     * Only accessed by the scheduler thread.
+     */
+    @Nonnull
+    private final Entry[][] slots;
+
+    /**
+     * The bitmaps of non-empty slots of each level. Only accessed by the scheduler thread.
+     */
+    @Nonnull
+    private final long[] occupied;
+
+    /**
+     * The entries of the registered tasks, mapped by their task.
+     */
+    @Nonnull
+    private final Map<Task, Entry> entries;
+
+    /**
+     * The entries which were registered or unregistered since the last pass of the scheduler thread.
+     */
+    @Nonnull
+    private final Queue<Entry> requests;
+
+    /**
+     * The metrics of this thread.
+     */
+    @Nonnull
+    private final ThreadMetrics metrics;
+
+    /**
+     * The last tick which was processed. Only accessed by the scheduler thread.
+     */
+    private long tick = -1;
+
+    //
+    // Loop
+    //
+
+    /**
+     * Runs the loop of this scheduler. Each pass applies pending requests, executes every task
+     * which has become due since the last pass, then parks this thread until the next deadline.
+     */
+    @Override
+    public void run() {
+        metrics.start();
+        tick = now();
+
+        while (!Thread.interrupted()) {
+            applyRequests();
+
+            // Process every tick which has passed since the last pass
+            final long now = now();
+
+            while (tick < now) {
+                tick++;
+                cascade();
+                expire();
+            }
+
+            // Requests may have arrived while the tasks were executing
+            if (!requests.isEmpty()) continue;
+
+            final long next = nextDeadline();
+
+            if (next == Long.MAX_VALUE) LockSupport.park(this);
+            else if (next > now) LockSupport.parkNanos(this, nanosUntil(next));
+        }
+    }
+
+    //
+    // Methods
+    //
+
+    /**
+     * {@inheritDoc}
+     * If the task is already registered to this scheduler, its previous registration is replaced.
+     *
+     * @param task The task to register to this scheduler
+     */
+    @Override
+    public void register(@Nonnull Task task) {
+        Objects.requireNonNull(task);
+
+        final Entry entry = new Entry(new TaskTimer(task, System.nanoTime()));
+        final Entry previous = entries.put(task, entry);
+        if (previous != null) cancel(previous);
+
+        requests.add(entry);
+        LockSupport.unpark(this);
+
+        task.onRegistered(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param tasks The iterable object containing the tasks to register
+     */
+    @Override
+    public void registerSync(@Nonnull Iterable<? extends Task> tasks) {
+        tasks.forEach(this::register);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param tasks The iterable object containing the tasks to register
+     */
+    @Override
+    public void registerAsync(@Nonnull Iterable<? extends Task> tasks) {
+        tasks.forEach(this::register);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param task The task to unregister from this scheduler
+     */
+    @Override
+    public void unregister(@Nonnull Task task) {
+        Objects.requireNonNull(task);
+
+        final Entry entry = entries.remove(task);
+        if (entry != null) cancel(entry);
+
+        task.onUnregistered(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param tasks The iterable object containing the tasks to unregister
+     */
+    @Override
+    public void unregister(@Nonnull Iterable<? extends Task> tasks) {
+        Objects.requireNonNull(tasks);
+        tasks.forEach(this::unregister);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public SchedulerSnapshot getMetrics() {
+        final List<TaskSnapshot> tasks = new ArrayList<>(entries.size());
+        entries.values().forEach(entry -> tasks.add(entry.timer.snapshot()));
+
+        return new SchedulerSnapshot(System.nanoTime(), tasks, List.of(metrics.snapshot(getName())));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initialize() {
+        // Nothing to do here
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void terminate() {
+        interrupt();
+    }
+
+    //
+    // Wheel
+    //
+
+    /**
+     * Applies the registrations and unregistrations which were requested by other threads.
+     */
+    private void applyRequests() {
+        for (Entry entry = requests.poll(); entry != null; entry = requests.poll()) {
+            if (entry.cancelled) {
+                if (entry.level >= 0) unlink(entry);
+                continue;
+            }
+
+            if (entry.level < 0) insert(entry);
+        }
+    }
+
+    /**
+     * Cascades the entries of the higher levels whose slots begin at the current tick
+     * down to the lower levels. Higher levels are cascaded first, as their entries may
+     * land in a slot of a lower level which begins at the same tick.
+     */
+    private void cascade() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            final int shift = SLOT_BITS * level;
+            if ((tick & ((1L << shift) - 1)) != 0) continue;
+
+            final int slot = (int) ((tick >>> shift) & (SLOTS - 1));
+            Entry entry = detach(level, slot);
+
+            while (entry != null) {
+                final Entry next = entry.next;
+                entry.next = null;
+
+                // The slot of the current tick is expired right after the cascade
+                if (!entry.cancelled) insert(entry, tick);
+                entry = next;
+            }
+        }
+    }
+
+    /**
+     * Executes the entries of the lowest level whose slot corresponds to the current tick.
+     */
+    private void expire() {
+        Entry entry = detach(0, (int) (tick & (SLOTS - 1)));
+
+        while (entry != null) {
+            final Entry next = entry.next;
+            entry.next = null;
+
+            if (!entry.cancelled) {
+                if (entry.timer.isDue(System.nanoTime())) execute(entry);
+                else insert(entry); // The deadline was clamped to the span of the wheel
+            }
+
+            entry = next;
+        }
+    }
+
+    /**
+     * Executes the task of an entry, then reschedules it unless it was unregistered during its execution.
+     *
+     * @param entry The entry of which to execute the task of
+     */
+    private void execute(@Nonnull Entry entry) {
+        metrics.record(entry.timer.execute(System.nanoTime(), printStream));
+        if (!entry.cancelled) insert(entry);
+    }
+
+    /**
+     * Inserts an entry into the slot which corresponds to its deadline.
+     * Entries which are already due are executed upon the next tick.
+     *
+     * @param entry The entry to insert
+     */
+    private void insert(@Nonnull Entry entry) {
+        insert(entry, tick + 1);
+    }
+
+    /**
+     * Inserts an entry into the slot which corresponds to its deadline,
+     * or to the provided tick if its deadline is earlier.
+     *
+     * @param entry    The entry to insert
+     * @param earliest The earliest tick to insert the entry at
+     */
+    private void insert(@Nonnull Entry entry, long earliest) {
+        final long deadline = Math.max(tickOf(entry.timer.getDeadline()), earliest);
+        final long delay = Math.min(deadline - tick, SPAN - 1);
+        final long target = tick + delay;
+
+        int level = 0;
+        while (delay >= 1L << (SLOT_BITS * (level + 1))) level++;
+
+        final int slot = (int) ((target >>> (SLOT_BITS * level)) & (SLOTS - 1));
+
+        entry.level = level;
+        entry.slot = slot;
+        entry.previous = null;
+        entry.next = slots[level][slot];
+
+        if (entry.next != null) entry.next.previous = entry;
+        slots[level][slot] = entry;
+        occupied[level] |= 1L << slot;
+    }
+
+    /**
+     * Removes an entry from the slot it is linked into.
+     *
+     * @param entry The entry to remove
+     */
+    private void unlink(@Nonnull Entry entry) {
+        if (entry.previous != null) entry.previous.next = entry.next;
+        else slots[entry.level][entry.slot] = entry.next;
+
+        if (entry.next != null) entry.next.previous = entry.previous;
+        if (slots[entry.level][entry.slot] == null) occupied[entry.level] &= ~(1L << entry.slot);
+
+        entry.previous = null;
+        entry.next = null;
+        entry.level = -1;
+    }
+
+    /**
+     * Removes every entry of a slot, and returns the head of the removed list.
+     *
+     * @param level The level of the slot
+     * @param slot  The index of the slot
+     * @return The head of the list of entries of the slot, {@code null} if the slot was empty
+     */
+    @Nullable
+    private Entry detach(int level, int slot) {
+        final Entry head = slots[level][slot];
+        if (head == null) return null;
+
+        slots[level][slot] = null;
+        occupied[level] &= ~(1L << slot);
+
+        for (Entry entry = head; entry != null; entry = entry.next) {
+            entry.level = -1;
+            entry.previous = null;
+        }
+
+        return head;
+    }
+
+    /**
+     * Returns the next tick at which an entry is due, or at which a slot of a higher level
+     * has to be cascaded. This is found in constant time by rotating the occupancy bitmap of
+     * each level to begin at the slot after the current one.
+     *
+     * @return The next tick which requires processing, {@link Long#MAX_VALUE} if the wheel is empty
+     */
+    private long nextDeadline() {
+        long next = Long.MAX_VALUE;
+
+        for (int level = 0; level < LEVELS; level++) {
+            if (occupied[level] == 0) continue;
+
+            final int shift = SLOT_BITS * level;
+            final long block = (tick >>> shift) + 1;
+            final long rotated = Long.rotateRight(occupied[level], (int) (block & (SLOTS - 1)));
+
+            next = Math.min(next, (block + Long.numberOfTrailingZeros(rotated)) << shift);
+        }
+
+        return next;
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Marks an entry as cancelled, and requests the scheduler thread to unlink it.
+     *
+     * @param entry The entry to cancel
+     */
+    private void cancel(@Nonnull Entry entry) {
+        entry.cancelled = true;
+
+        // Entries cancelled by the scheduler thread itself are handled upon rescheduling
+        if (Thread.currentThread() != this) {
+            requests.add(entry);
+            LockSupport.unpark(this);
+        }
+    }
+
+    /**
+     * Returns the current tick of this wheel.
+     *
+     * @return The number of milliseconds since the origin of this wheel
+     */
+    private long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
+    }
+
+    /**
+     * Returns the first tick which begins at or after the provided time.
+     *
+     * @param nanos The time in nanoseconds
+     * @return The tick of the provided time, rounded up
+     */
+    private long tickOf(long nanos) {
+        return -Math.floorDiv(origin - nanos, 1_000_000L);
+    }
+
+    /**
+     * Returns the number of nanoseconds until the provided tick begins.
+     *
+     * @param tick The tick to wait for
+     * @return The number of nanoseconds to wait for
+     */
+    private long nanosUntil(long tick) {
+        return origin + TimeUnit.MILLISECONDS.toNanos(tick) - System.nanoTime();
+    }
+
+    //
+    // Entries
+    //
+
+    /**
+     * The registration of a task to the wheel.
+     */
+    private static final class Entry {
+        /**
+         * Creates a new entry.
+         *
+         * @param timer The timer of the task of this entry
+         */
+        private Entry(@Nonnull TaskTimer timer) {
+            this.timer = timer;
+        }
+
+        /**
+         * The timer of the task of this entry.
+         */
+        @Nonnull
+        private final TaskTimer timer;
+
+        /**
+         * Whether the task has been unregistered.
+         */
+        private volatile boolean cancelled = false;
+
+        /**
+         * The level of the slot this entry is linked into, {@code -1} if it is not linked.
+         */
+        private int level = -1;
+
+        /**
+         * The index of the slot this entry is linked into.
+         */
+        private int slot;
+
+        /**
+         * The previous entry of the slot.
+         */
+        @Nullable
+        private Entry previous;
+
+        /**
+         * The next entry of the slot.
+         */
+        @Nullable
+        private Entry next;
+    }
+}
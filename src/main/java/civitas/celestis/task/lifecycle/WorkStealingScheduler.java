@@ -0,0 +1,663 @@
+package civitas.celestis.task.lifecycle;
+
+import civitas.celestis.task.Task;
+import civitas.celestis.task.metrics.SchedulerSnapshot;
+import civitas.celestis.task.metrics.TaskSnapshot;
+import civitas.celestis.task.metrics.ThreadMetrics;
+import civitas.celestis.task.metrics.ThreadSnapshot;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An asynchronous scheduler whose worker threads steal due tasks from each other. Each worker
+ * keeps the deadlines of the tasks it owns, and moves its tasks to a deque of due tasks once their
+ * deadline is reached. Workers execute the due tasks of their own deque first, and steal from the
+ * opposite end of the deques of other workers once their own deque is empty, so due tasks are
+ * executed by whichever worker is free. A stolen task migrates to the worker which stole it,
+ * which spreads heavy tasks across the workers over time.
+ * <p>
+ * Tasks are registered to the worker which currently owns the fewest tasks. Tasks which benefit
+ * from staying on one thread, such as tasks which operate on thread-confined or cache-sensitive
+ * data, can be registered with an affinity hint using {@link #register(Task, int)}. Such tasks are
+ * never stolen, and are always executed by the worker they were registered to.
+ * </p>
+ * <p>
+ * Idle workers park until their next deadline, and are woken up when other workers have more
+ * due tasks than they can execute. A worker which is busy executing a task cannot move its own
+ * tasks to its deque once they are due, so idle workers also wake up at the deadlines of busy
+ * workers, and move the due tasks of the busy workers to their deques on their behalf, from
+ * where they can be stolen. The deadlines of each worker are guarded by a lock, which the owning
+ * worker rarely contends on, and which idle workers only ever try to acquire without blocking.
+ * Tasks are scheduled by their {@link TaskTimer timer}, in the same way as in {@link SchedulerThread}.
+ * </p>
+ *
+ * @see Scheduler
+ * @see AtomicScheduler
+ */
+public class WorkStealingScheduler implements Scheduler {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new work-stealing scheduler with one worker per available processor.
+     */
+    public WorkStealingScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new work-stealing scheduler.
+     *
+     * @param n The number of worker threads
+     */
+    public WorkStealingScheduler(int n) {
+        this(n, System.out);
+    }
+
+    /**
+     * Creates a new work-stealing scheduler.
+     *
+     * @param n           The number of worker threads
+     * @param printStream The print stream to print error messages to
+     */
+    public WorkStealingScheduler(int n, @Nonnull PrintStream printStream) {
+        if (n < 1) {
+            throw new IllegalArgumentException("A work-stealing scheduler cannot have fewer than 1 thread.");
+        }
+
+        this.printStream = Objects.requireNonNull(printStream);
+        this.workers = new Worker[n];
+        this.handles = new ConcurrentHashMap<>();
+
+        for (int i = 0; i < n; i++) {
+            workers[i] = new Worker("WorkStealingScheduler-" + (i + 1), i);
+        }
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The print stream to print error messages to.
+     */
+    @Nonnull
+    private final PrintStream printStream;
+
+    /**
+     * The worker threads of this scheduler.
+     */
+    @Nonnull
+    private final Worker[] workers;
+
+    /**
+     * The handles of the registered tasks, mapped by their task.
+     */
+    @Nonnull
+    private final Map<Task, Handle> handles;
+
+    //
+    // Getters
+    //
+
+    /**
+     * Returns the number of worker threads of this scheduler.
+     *
+     * @return The number of workers
+     */
+    public int getWorkerCount() {
+        return workers.length;
+    }
+
+    //
+    // Methods
+    //
+
+    /**
+     * {@inheritDoc}
+     * The task is registered to the worker which currently owns the fewest tasks,
+     * and can be stolen by other workers.
+     *
+     * @param task The task to register to this scheduler
+     */
+    @Override
+    public void register(@Nonnull Task task) {
+        register(task, leastLoaded(), false);
+    }
+
+    /**
+     * Registers a task to this scheduler with an affinity hint. The task is pinned to the
+     * worker of the provided index modulo the number of workers, and is never stolen.
+     *
+     * @param task     The task to register to this scheduler
+     * @param affinity The index of the worker to pin the task to
+     */
+    public void register(@Nonnull Task task, int affinity) {
+        register(task, workers[Math.floorMod(affinity, workers.length)], true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The tasks are pinned to the worker which currently owns the fewest tasks,
+     * and are never stolen.
+     *
+     * @param tasks The iterable object containing the tasks to register
+     */
+    @Override
+    public void registerSync(@Nonnull Iterable<? extends Task> tasks) {
+        final Worker worker = leastLoaded();
+        tasks.forEach(task -> register(task, worker, true));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param tasks The iterable object containing the tasks to register
+     */
+    @Override
+    public void registerAsync(@Nonnull Iterable<? extends Task> tasks) {
+        tasks.forEach(this::register);
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the task is currently being executed, the execution is completed.
+     *
+     * @param task The task to unregister from this scheduler
+     */
+    @Override
+    public void unregister(@Nonnull Task task) {
+        Objects.requireNonNull(task);
+
+        final Handle handle = handles.remove(task);
+        if (handle != null) handle.cancelled = true;
+
+        task.onUnregistered(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param tasks The iterable object containing the tasks to unregister
+     */
+    @Override
+    public void unregister(@Nonnull Iterable<? extends Task> tasks) {
+        Objects.requireNonNull(tasks);
+        tasks.forEach(this::unregister);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    public SchedulerSnapshot getMetrics() {
+        final List<TaskSnapshot> tasks = new ArrayList<>(handles.size());
+        final List<ThreadSnapshot> threads = new ArrayList<>(workers.length);
+
+        handles.values().forEach(handle -> tasks.add(handle.timer.snapshot()));
+        for (final Worker worker : workers) threads.add(worker.metrics.snapshot(worker.getName()));
+
+        return new SchedulerSnapshot(System.nanoTime(), tasks, threads);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initialize() {
+        // Nothing to do here
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        for (final Worker worker : workers) worker.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void interrupt() {
+        for (final Worker worker : workers) worker.interrupt();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void terminate() {
+        interrupt();
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Registers a task to a worker. If the task is already registered to this scheduler,
+     * its previous registration is replaced.
+     *
+     * @param task   The task to register
+     * @param worker The worker to register the task to
+     * @param pinned Whether the task must only be executed by the worker
+     */
+    private void register(@Nonnull Task task, @Nonnull Worker worker, boolean pinned) {
+        Objects.requireNonNull(task);
+
+        final Handle handle = new Handle(new TaskTimer(task, System.nanoTime()), pinned);
+        final Handle previous = handles.put(task, handle);
+        if (previous != null) previous.cancelled = true;
+
+        worker.load.incrementAndGet();
+        worker.requests.add(handle);
+        LockSupport.unpark(worker);
+
+        task.onRegistered(this);
+    }
+
+    /**
+     * Returns the worker which currently owns the fewest tasks.
+     *
+     * @return The least loaded worker
+     */
+    @Nonnull
+    private Worker leastLoaded() {
+        Worker least = workers[0];
+
+        for (final Worker worker : workers) {
+            if (worker.load.get() < least.load.get()) least = worker;
+        }
+
+        return least;
+    }
+
+    /**
+     * Wakes up one idle worker, so that it can steal due tasks.
+     *
+     * @param caller The worker which has due tasks to spare
+     */
+    private void signal(@Nonnull Worker caller) {
+        for (int i = 1; i < workers.length; i++) {
+            final Worker worker = workers[(caller.index + i) % workers.length];
+
+            if (worker.idle) {
+                LockSupport.unpark(worker);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Checks if a deadline has been reached.
+     *
+     * @param deadline The deadline in nanoseconds, {@link Long#MAX_VALUE} if there is none
+     * @param now      The current time in nanoseconds
+     * @return {@code true} if the deadline has been reached
+     */
+    private static boolean due(long deadline, long now) {
+        return deadline != Long.MAX_VALUE && now - deadline >= 0;
+    }
+
+    //
+    // Workers
+    //
+
+    /**
+     * A worker thread of a work-stealing scheduler.
+     */
+    private final class Worker extends Thread {
+        /**
+         * Creates a new worker.
+         *
+         * @param name  The name of this thread
+         * @param index The index of this worker
+         */
+        private Worker(@Nonnull String name, int index) {
+            super(name);
+
+            this.index = index;
+            this.load = new AtomicInteger();
+            this.requests = new ConcurrentLinkedQueue<>();
+            this.lock = new ReentrantLock();
+            this.timers = new PriorityQueue<>(Comparator.comparingLong(h -> h.timer.getDeadline()));
+            this.pinned = new ConcurrentLinkedDeque<>();
+            this.shared = new ConcurrentLinkedDeque<>();
+            this.metrics = new ThreadMetrics();
+        }
+
+        /**
+         * The index of this worker.
+         */
+        private final int index;
+
+        /**
+         * The number of tasks this worker owns.
+         */
+        @Nonnull
+        private final AtomicInteger load;
+
+        /**
+         * The handles which were registered to this worker since its last pass.
+         */
+        @Nonnull
+        private final Queue<Handle> requests;
+
+        /**
+         * The lock which guards the timers of this worker.
+         */
+        @Nonnull
+        private final ReentrantLock lock;
+
+        /**
+         * The handles which are not yet due, ordered by their deadline. Guarded by the lock of this worker.
+         */
+        @Nonnull
+        private final PriorityQueue<Handle> timers;
+
+        /**
+         * The due handles which are pinned to this worker. Only polled by this worker.
+         */
+        @Nonnull
+        private final Deque<Handle> pinned;
+
+        /**
+         * The due handles which can be stolen by other workers.
+         */
+        @Nonnull
+        private final Deque<Handle> shared;
+
+        /**
+         * The metrics of this worker.
+         */
+        @Nonnull
+        private final ThreadMetrics metrics;
+
+        /**
+         * Whether this worker is parked, or about to park.
+         */
+        private volatile boolean idle = false;
+
+        /**
+         * The deadline of the first handle in the timers of this worker in nanoseconds,
+         * {@link Long#MAX_VALUE} if there is none.
+         */
+        private volatile long next = Long.MAX_VALUE;
+
+        /**
+         * The time at which this worker wakes up while it is idle in nanoseconds,
+         * {@link Long#MAX_VALUE} if it only wakes up once it is signalled.
+         */
+        private volatile long wakeAt = Long.MAX_VALUE;
+
+        /**
+         * Runs the loop of this worker. Each pass moves due tasks to the deques of this worker,
+         * then executes one due task, stealing one from another worker if there are none.
+         */
+        @Override
+        public void run() {
+            metrics.start();
+
+            while (!Thread.interrupted()) {
+                lock.lock();
+
+                try {
+                    for (Handle handle = requests.poll(); handle != null; handle = requests.poll()) {
+                        schedule(handle);
+                    }
+
+                    release(System.nanoTime());
+                } finally {
+                    lock.unlock();
+                }
+
+                Handle handle = pinned.pollFirst();
+                if (handle == null) handle = shared.pollFirst();
+                if (handle == null) handle = steal();
+
+                if (handle != null) {
+                    watch();
+                    execute(handle);
+                    continue;
+                }
+
+                idle = true;
+
+                // Re-check for work which was published before this worker became idle
+                if (requests.isEmpty() && !hasStealable() && !adopt(System.nanoTime())) park();
+
+                idle = false;
+                wakeAt = Long.MAX_VALUE;
+            }
+        }
+
+        /**
+         * Adds a handle to the timers of this worker, unless it has been unregistered.
+         * The lock of this worker must be held.
+         *
+         * @param handle The handle to schedule
+         */
+        private void schedule(@Nonnull Handle handle) {
+            if (handle.cancelled) load.decrementAndGet();
+            else timers.add(handle);
+
+            publish();
+        }
+
+        /**
+         * Moves the handles which are due to the deques of this worker. If more than one
+         * stealable handle is due, an idle worker is woken up to help. The lock of this
+         * worker must be held, but need not be held by this worker.
+         *
+         * @param now The current time in nanoseconds
+         */
+        private void release(long now) {
+            int released = 0;
+
+            for (Handle handle = timers.peek(); handle != null; handle = timers.peek()) {
+                if (!handle.cancelled && !handle.timer.isDue(now)) break;
+                timers.poll();
+
+                if (handle.cancelled) load.decrementAndGet();
+                else if (handle.pinned) pinned.addLast(handle);
+                else {
+                    shared.addLast(handle);
+                    released++;
+                }
+            }
+
+            publish();
+
+            // Distinct handles at both ends of the deque mean that there is more than one
+            if (released > 0 && shared.peekFirst() != shared.peekLast()) signal(this);
+        }
+
+        /**
+         * Publishes the deadline of the first handle in the timers of this worker.
+         * The lock of this worker must be held.
+         */
+        private void publish() {
+            final Handle head = timers.peek();
+            next = head != null ? head.timer.getDeadline() : Long.MAX_VALUE;
+        }
+
+        /**
+         * Moves the due handles of busy workers to their deques on their behalf, as busy workers
+         * cannot do so until their current execution completes. Workers whose timers are locked
+         * are skipped.
+         *
+         * @param now The current time in nanoseconds
+         * @return {@code true} if there is a handle to steal afterward
+         */
+        private boolean adopt(long now) {
+            for (int i = 1; i < workers.length; i++) {
+                final Worker worker = workers[(index + i) % workers.length];
+                if (worker.idle || !due(worker.next, now) || !worker.lock.tryLock()) continue;
+
+                try {
+                    worker.release(now);
+                } finally {
+                    worker.lock.unlock();
+                }
+
+                if (!worker.shared.isEmpty()) return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Wakes up an idle worker which would otherwise sleep past the next deadline of this worker,
+         * so that it can move the handles of this worker which become due during the upcoming execution.
+         */
+        private void watch() {
+            final long deadline = next;
+            if (deadline == Long.MAX_VALUE) return;
+
+            for (int i = 1; i < workers.length; i++) {
+                final Worker worker = workers[(index + i) % workers.length];
+                if (!worker.idle) continue;
+
+                final long wakeAt = worker.wakeAt;
+                if (wakeAt != Long.MAX_VALUE && wakeAt - deadline <= 0) return;
+
+                LockSupport.unpark(worker);
+                return;
+            }
+        }
+
+        /**
+         * Steals a due handle from the opposite end of the deque of another worker.
+         * The stolen handle migrates to this worker.
+         *
+         * @return The stolen handle, {@code null} if no worker had a due handle to spare
+         */
+        @Nullable
+        private Handle steal() {
+            for (int i = 1; i < workers.length; i++) {
+                final Worker victim = workers[(index + i) % workers.length];
+                final Handle handle = victim.shared.pollLast();
+                if (handle == null) continue;
+
+                victim.load.decrementAndGet();
+                load.incrementAndGet();
+
+                // Pass the signal on if the victim has more due handles to spare
+                if (!victim.shared.isEmpty()) signal(this);
+                return handle;
+            }
+
+            return null;
+        }
+
+        /**
+         * Checks if any other worker has a due handle to spare.
+         *
+         * @return {@code true} if there is a handle to steal
+         */
+        private boolean hasStealable() {
+            for (final Worker worker : workers) {
+                if (worker != this && !worker.shared.isEmpty()) return true;
+            }
+
+            return false;
+        }
+
+        /**
+         * Executes the task of a handle, then schedules its next execution
+         * unless it was unregistered.
+         *
+         * @param handle The handle of which to execute the task of
+         */
+        private void execute(@Nonnull Handle handle) {
+            if (!handle.cancelled) metrics.record(handle.timer.execute(System.nanoTime(), printStream));
+
+            lock.lock();
+
+            try {
+                schedule(handle);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Parks this worker until its next deadline or the next deadline of a busy worker,
+         * whichever comes first, or until it is woken up.
+         */
+        private void park() {
+            long deadline = next;
+
+            for (final Worker worker : workers) {
+                if (worker == this || worker.idle) continue;
+
+                final long other = worker.next;
+                if (other != Long.MAX_VALUE && (deadline == Long.MAX_VALUE || other - deadline < 0)) deadline = other;
+            }
+
+            wakeAt = deadline;
+
+            if (deadline == Long.MAX_VALUE) LockSupport.park(this);
+            else LockSupport.parkNanos(this, deadline - System.nanoTime());
+        }
+    }
+
+    //
+    // Handles
+    //
+
+    /**
+     * The registration of a task. A handle is owned by exactly one worker at a time,
+     * and is either waiting for its deadline, queued as due, or being executed.
+     */
+    private static final class Handle {
+        /**
+         * Creates a new handle.
+         *
+         * @param timer  The timer of the task of this handle
+         * @param pinned Whether the task must only be executed by the worker it was registered to
+         */
+        private Handle(@Nonnull TaskTimer timer, boolean pinned) {
+            this.timer = timer;
+            this.pinned = pinned;
+        }
+
+        /**
+         * The timer of the task of this handle.
+         */
+        @Nonnull
+        private final TaskTimer timer;
+
+        /**
+         * Whether the task must only be executed by the worker it was registered to.
+         */
+        private final boolean pinned;
+
+        /**
+         * Whether the task has been unregistered.
+         */
+        private volatile boolean cancelled = false;
+    }
+}
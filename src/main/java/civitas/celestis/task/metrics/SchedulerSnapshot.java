@@ -0,0 +1,32 @@
+package civitas.celestis.task.metrics;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.List;
+
+/**
+ * An immutable snapshot of the metrics of a scheduler.
+ *
+ * @param timestamp The value of {@link System#nanoTime()} when the snapshot was taken
+ * @param tasks     The snapshots of every registered task
+ * @param threads   The snapshots of every thread of the scheduler
+ * @see TaskSnapshot
+ * @see ThreadSnapshot
+ */
+public record SchedulerSnapshot(
+        long timestamp,
+        @Nonnull List<TaskSnapshot> tasks,
+        @Nonnull List<ThreadSnapshot> threads
+) {
+    /**
+     * Creates a new scheduler snapshot. The lists of tasks and threads are copied.
+     *
+     * @param timestamp The value of {@link System#nanoTime()} when the snapshot was taken
+     * @param tasks     The snapshots of every registered task
+     * @param threads   The snapshots of every thread of the scheduler
+     */
+    public SchedulerSnapshot {
+        tasks = List.copyOf(tasks);
+        threads = List.copyOf(threads);
+    }
+}
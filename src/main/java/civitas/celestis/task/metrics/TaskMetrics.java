@@ -0,0 +1,111 @@
+package civitas.celestis.task.metrics;
+
+import civitas.celestis.event.metrics.LatencyHistogram;
+import civitas.celestis.task.Task;
+import jakarta.annotation.Nonnull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free metrics of a task registered to a scheduler. Each execution of the task
+ * records its execution time, its lateness, which is the duration between its scheduled
+ * deadline and its actual start, whether it overran the interval of the task, and whether
+ * it threw an exception.
+ * <p>
+ * Recording an execution requires no allocation, and a snapshot can be taken from any
+ * thread while executions are being recorded.
+ * </p>
+ *
+ * @see TaskSnapshot
+ * @see LatencyHistogram
+ */
+public final class TaskMetrics {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new empty set of task metrics.
+     */
+    public TaskMetrics() {
+        this.executions = new LongAdder();
+        this.overruns = new LongAdder();
+        this.exceptions = new LongAdder();
+        this.executionTime = new LatencyHistogram();
+        this.lateness = new LatencyHistogram();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The number of executions.
+     */
+    @Nonnull
+    private final LongAdder executions;
+
+    /**
+     * The number of executions which took longer than the interval of the task.
+     */
+    @Nonnull
+    private final LongAdder overruns;
+
+    /**
+     * The number of executions which threw an exception.
+     */
+    @Nonnull
+    private final LongAdder exceptions;
+
+    /**
+     * The histogram of execution times.
+     */
+    @Nonnull
+    private final LatencyHistogram executionTime;
+
+    /**
+     * The histogram of the lateness of each execution.
+     */
+    @Nonnull
+    private final LatencyHistogram lateness;
+
+    //
+    // Methods
+    //
+
+    /**
+     * Records an execution of the task.
+     *
+     * @param nanos    The execution time in nanoseconds
+     * @param lateness The duration between the scheduled deadline and the start of the execution in nanoseconds
+     * @param interval The interval of the task in nanoseconds, {@code 0} if the task has no interval to overrun
+     * @param failed   Whether the execution threw an exception
+     */
+    public void record(long nanos, long lateness, long interval, boolean failed) {
+        executions.increment();
+        executionTime.record(nanos);
+        this.lateness.record(lateness);
+
+        // A task of no interval runs back to back, and cannot overrun it
+        if (interval > 0 && nanos > interval) overruns.increment();
+        if (failed) exceptions.increment();
+    }
+
+    /**
+     * Returns a snapshot of the current state of these metrics.
+     *
+     * @param task The task these metrics belong to
+     * @return The snapshot of these metrics
+     */
+    @Nonnull
+    public TaskSnapshot snapshot(@Nonnull Task task) {
+        return new TaskSnapshot(
+                task,
+                executions.sum(),
+                overruns.sum(),
+                exceptions.sum(),
+                executionTime.snapshot(),
+                lateness.snapshot()
+        );
+    }
+}
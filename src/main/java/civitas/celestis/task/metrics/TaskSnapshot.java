@@ -0,0 +1,25 @@
+package civitas.celestis.task.metrics;
+
+import civitas.celestis.event.metrics.HistogramSnapshot;
+import civitas.celestis.task.Task;
+import jakarta.annotation.Nonnull;
+
+/**
+ * An immutable snapshot of the metrics of a registered task.
+ *
+ * @param task          The task
+ * @param executions    The number of executions of the task
+ * @param overruns      The number of executions which took longer than the interval of the task
+ * @param exceptions    The number of executions which threw an exception
+ * @param executionTime The histogram of execution times in nanoseconds
+ * @param lateness      The histogram of the lateness of each execution in nanoseconds
+ * @see TaskMetrics
+ */
+public record TaskSnapshot(
+        @Nonnull Task task,
+        long executions,
+        long overruns,
+        long exceptions,
+        @Nonnull HistogramSnapshot executionTime,
+        @Nonnull HistogramSnapshot lateness
+) {}
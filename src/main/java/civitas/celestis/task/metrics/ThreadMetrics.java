@@ -0,0 +1,87 @@
+package civitas.celestis.task.metrics;
+
+import jakarta.annotation.Nonnull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free metrics of a thread of a scheduler. The thread records the time it spends
+ * executing tasks, from which its utilization is derived. The thread must call
+ * {@link #start()} once its loop begins, as its utilization is measured from then on.
+ *
+ * @see ThreadSnapshot
+ */
+public final class ThreadMetrics {
+    //
+    // Constructors
+    //
+
+    /**
+     * Creates a new empty set of thread metrics.
+     */
+    public ThreadMetrics() {
+        this.executions = new LongAdder();
+        this.busy = new LongAdder();
+    }
+
+    //
+    // Variables
+    //
+
+    /**
+     * The value of {@link System#nanoTime()} when the loop of the thread began.
+     */
+    private volatile long started;
+
+    /**
+     * Whether the loop of the thread has begun.
+     */
+    private volatile boolean running = false;
+
+    /**
+     * The number of executions performed by the thread.
+     */
+    @Nonnull
+    private final LongAdder executions;
+
+    /**
+     * The time the thread has spent executing tasks in nanoseconds.
+     */
+    @Nonnull
+    private final LongAdder busy;
+
+    //
+    // Methods
+    //
+
+    /**
+     * Marks the beginning of the loop of the thread. Called by the thread itself.
+     */
+    public void start() {
+        started = System.nanoTime();
+        running = true;
+    }
+
+    /**
+     * Records an execution performed by the thread.
+     *
+     * @param nanos The execution time in nanoseconds
+     */
+    public void record(long nanos) {
+        executions.increment();
+        busy.add(Math.max(nanos, 0));
+    }
+
+    /**
+     * Returns a snapshot of the current state of these metrics. If the loop of the thread
+     * has not begun yet, the snapshot is started at the time it is taken.
+     *
+     * @param name The name of the thread these metrics belong to
+     * @return The snapshot of these metrics
+     */
+    @Nonnull
+    public ThreadSnapshot snapshot(@Nonnull String name) {
+        final long timestamp = System.nanoTime();
+        return new ThreadSnapshot(name, timestamp, running ? started : timestamp, executions.sum(), busy.sum());
+    }
+}
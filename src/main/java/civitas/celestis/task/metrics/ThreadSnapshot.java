@@ -0,0 +1,42 @@
+package civitas.celestis.task.metrics;
+
+import jakarta.annotation.Nonnull;
+
+/**
+ * An immutable snapshot of the metrics of a thread of a scheduler.
+ *
+ * @param name       The name of the thread
+ * @param timestamp  The value of {@link System#nanoTime()} when the snapshot was taken
+ * @param started    The value of {@link System#nanoTime()} when the loop of the thread began
+ * @param executions The number of executions performed by the thread
+ * @param busy       The time the thread has spent executing tasks in nanoseconds
+ * @see ThreadMetrics
+ */
+public record ThreadSnapshot(
+        @Nonnull String name,
+        long timestamp,
+        long started,
+        long executions,
+        long busy
+) {
+    /**
+     * Returns the utilization of the thread since its metrics were created.
+     *
+     * @return The fraction of time the thread has spent executing tasks
+     */
+    public double utilization() {
+        final long elapsed = timestamp - started;
+        return elapsed <= 0 ? 0 : (double) busy / elapsed;
+    }
+
+    /**
+     * Returns the utilization of the thread since the provided earlier snapshot.
+     *
+     * @param previous The earlier snapshot of the same thread
+     * @return The fraction of time the thread has spent executing tasks
+     */
+    public double utilization(@Nonnull ThreadSnapshot previous) {
+        final long elapsed = timestamp - previous.timestamp;
+        return elapsed <= 0 ? 0 : (double) (busy - previous.busy) / elapsed;
+    }
+}
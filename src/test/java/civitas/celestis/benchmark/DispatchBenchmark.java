@@ -0,0 +1,98 @@
+package civitas.celestis.benchmark;
+
+import civitas.celestis.event.*;
+import civitas.celestis.event.notification.NotificationEvent;
+import civitas.celestis.exception.event.HandlerException;
+import jakarta.annotation.Nonnull;
+
+import java.lang.reflect.Method;
+
+/**
+ * A benchmark which compares the reflective dispatch path to the compiled
+ * dispatch path of {@link HandlerReference}s.
+ *
+ * @see Dispatchers
+ * @see HandlerDispatcher
+ */
+public final class DispatchBenchmark {
+    /**
+     * The number of invocations per measured round.
+     */
+    private static final int INVOCATIONS = 10_000_000;
+
+    /**
+     * The number of rounds to measure. The first half of rounds are used as warmup.
+     */
+    private static final int ROUNDS = 10;
+
+    /**
+     * The main method of this benchmark.
+     *
+     * @param args The array of arguments
+     * @throws HandlerException Never
+     */
+    public static void main(@Nonnull String[] args) throws HandlerException {
+        final CountingListener listener = new CountingListener();
+        final Method method = listener.getHandlerReferences().iterator().next().method();
+
+        final HandlerReference reflective = new HandlerReference(listener, method, Dispatchers.reflective(method));
+        final HandlerReference compiled = new HandlerReference(listener, method);
+
+        final NotificationEvent event = new NotificationEvent("benchmark");
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final long reflectiveTime = measure(reflective, event);
+            final long compiledTime = measure(compiled, event);
+
+            if (round < ROUNDS / 2) continue; // Warmup
+
+            System.out.printf(
+                    "Round %d: reflective %.2f ns/op, compiled %.2f ns/op%n",
+                    round - ROUNDS / 2 + 1,
+                    (double) reflectiveTime / INVOCATIONS,
+                    (double) compiledTime / INVOCATIONS
+            );
+        }
+
+        // Print the count to prevent the handler from being eliminated
+        System.out.println("Handled " + listener.count + " events.");
+    }
+
+    /**
+     * Measures the time it takes to handle the event {@link #INVOCATIONS} times.
+     *
+     * @param handler The handler to invoke
+     * @param event   The event to handle
+     * @return The elapsed time in nanoseconds
+     * @throws HandlerException Never
+     */
+    private static long measure(@Nonnull HandlerReference handler, @Nonnull Handleable event) throws HandlerException {
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < INVOCATIONS; i++) {
+            handler.handle(event);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * A listener which counts the number of events it has handled.
+     */
+    public static final class CountingListener implements Listener {
+        /**
+         * The number of handled events.
+         */
+        private long count = 0;
+
+        /**
+         * Increments the counter.
+         *
+         * @param event The event which was called
+         */
+        @EventHandler
+        public void onNotification(@Nonnull NotificationEvent event) {
+            count++;
+        }
+    }
+}
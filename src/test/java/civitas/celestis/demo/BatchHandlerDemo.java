@@ -0,0 +1,67 @@
+package civitas.celestis.demo;
+
+import civitas.celestis.event.EventHandler;
+import civitas.celestis.event.Listener;
+import civitas.celestis.event.lifecycle.DirectEventManager;
+import civitas.celestis.event.lifecycle.EventManager;
+import civitas.celestis.event.notification.NotificationEvent;
+import jakarta.annotation.Nonnull;
+
+import java.util.List;
+
+/**
+ * A program which checks that batch handlers receive events which are called individually
+ * to a {@link DirectEventManager}, in the same way as they would from a queued event manager.
+ *
+ * @see DirectEventManager
+ */
+public final class BatchHandlerDemo {
+    /**
+     * The main method of this program. The program should print the number of events
+     * received by the batch handler, then automatically terminate.
+     *
+     * @param args The array of arguments
+     * @throws IllegalStateException When the batch handler did not receive every event
+     */
+    public static void main(@Nonnull String[] args) {
+        final EventManager eventManager = new DirectEventManager();
+        final CountingListener listener = new CountingListener();
+
+        eventManager.initialize();
+        eventManager.register(listener);
+        eventManager.start();
+
+        // Calls each event individually
+        eventManager.call(new NotificationEvent("Hello"));
+        eventManager.callAsync(new NotificationEvent("world"));
+        eventManager.priorityCall(new NotificationEvent("!"));
+
+        eventManager.terminate();
+
+        if (listener.received != 3) {
+            throw new IllegalStateException("The batch handler received " + listener.received + " of 3 events.");
+        }
+
+        System.out.println("The batch handler received " + listener.received + " events.");
+    }
+
+    /**
+     * A listener which counts the events its batch handler receives.
+     */
+    public static final class CountingListener implements Listener {
+        /**
+         * The number of events received by the batch handler.
+         */
+        private int received = 0;
+
+        /**
+         * Counts a batch of notification events.
+         *
+         * @param events The list of events of the batch
+         */
+        @EventHandler
+        public void onNotifications(@Nonnull List<NotificationEvent> events) {
+            received += events.size();
+        }
+    }
+}